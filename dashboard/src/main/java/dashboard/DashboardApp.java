@@ -1,26 +1,62 @@
 package dashboard;
 
 import com.google.gson.Gson;
+import com.mongodb.client.MongoCursor;
+import dashboard.model.DurationRegression;
 import dashboard.model.EmailSettings;
 import dashboard.model.Execution;
+import dashboard.model.ExecutionQuery;
+import dashboard.model.RunShard;
+import dashboard.model.RunSummary;
+import dashboard.model.TestFlakiness;
+import dashboard.service.ChangeStreamWatcher;
+import dashboard.service.DashboardCache;
+import dashboard.service.DurationRegressionService;
+import dashboard.service.ExecutionRepository;
+import dashboard.service.FailureClusterService;
+import dashboard.service.FlakinessService;
+import dashboard.service.GridFsScreenshotStore;
+import dashboard.service.IndexManager;
+import dashboard.service.LocalScreenshotStore;
 import dashboard.service.MongoService;
+import dashboard.service.RetentionService;
+import dashboard.service.RunDiffService;
+import dashboard.service.RunEventHub;
+import dashboard.service.RunSummaryService;
 import dashboard.service.SchedulerService;
+import dashboard.service.ScreenshotStore;
+import dashboard.service.StepStatsService;
+import dashboard.service.ThumbnailService;
 import dashboard.transformer.JsonTransformer;
+import dashboard.util.ByteRange;
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import spark.ModelAndView;
+import spark.Request;
+import spark.embeddedserver.EmbeddedServers;
+import spark.embeddedserver.jetty.EmbeddedJettyFactory;
 import spark.template.thymeleaf.ThymeleafTemplateEngine;
 
 import java.util.ArrayList;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import javax.servlet.MultipartConfigElement;
 import javax.servlet.http.Part;
-import java.util.stream.Collectors;
 
 import static spark.Spark.*;
 
@@ -28,17 +64,138 @@ public class DashboardApp {
 
     private static final Logger logger = LoggerFactory.getLogger(DashboardApp.class);
     private static final Gson gson = new Gson();
+    /** Mongo Java driver'ının varsayılan maxPoolSize değeri */
+    private static final int MONGO_DEFAULT_MAX_POOL_SIZE = 100;
+    /** Jetty'nin istek havuzundan aldığı acceptor ve selector thread'leri için pay */
+    private static final int JETTY_RESERVED_THREADS = 8;
     private static MongoService finalMongoService;  // Sınıf seviyesinde tanımlandı
+    private static ExecutionRepository executionRepository;
+    private static RunSummaryService runSummaryService;
+    private static DashboardCache dashboardCache;
+    private static ChangeStreamWatcher changeStreamWatcher;
+    private static RetentionService retentionService;
+    private static StepStatsService stepStatsService;
+    private static ScreenshotStore screenshotStore;
+    private static ThumbnailService thumbnailService;
+    private static RunEventHub runEventHub;
+    private static FlakinessService flakinessService;
+    private static DurationRegressionService durationRegressionService;
+    private static FailureClusterService failureClusterService;
+    private static RunDiffService runDiffService;
 
     private static EmailSettings getSettings() {
         try {
-            return finalMongoService != null ? finalMongoService.getEmailSettings() : new EmailSettings();
+            EmailSettings settings = loadEmailSettings();
+            return settings != null ? settings : new EmailSettings();
         } catch (Exception e) {
             logger.error("Error getting email settings: ", e);
             return new EmailSettings();
         }
     }
 
+    private static EmailSettings loadEmailSettings() {
+        if (finalMongoService == null) {
+            return null;
+        }
+        return dashboardCache != null
+            ? dashboardCache.settings(finalMongoService::getEmailSettings)
+            : finalMongoService.getEmailSettings();
+    }
+
+    private static List<RunSummary> loadRecentRuns(int limit) {
+        List<RunSummary> runs = runSummaryService.findRecent(limit);
+        if (runs.isEmpty()) {
+            // Özet koleksiyonu öncesi yazılmış veriler için execution'lardan run listesi
+            for (String runId : executionRepository.findRecentRunIds(limit)) {
+                runs.add(new RunSummary(runId));
+            }
+        }
+        return runs;
+    }
+
+    private static int envInt(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("{} geçersiz ({}), varsayılan {} kullanılıyor.", name, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static double envDouble(String name, double defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("{} geçersiz ({}), varsayılan {} kullanılıyor.", name, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * /api/executions sorgu parametrelerini okur: runId, status, from, to (ISO_LOCAL_DATE_TIME), q (senaryo adı öneki),
+     * cursor, limit ve fields (virgülle ayrılmış alan listesi)
+     */
+    private static ExecutionQuery parseExecutionQuery(Request req) {
+        ExecutionQuery query = new ExecutionQuery();
+        query.setRunId(emptyToNull(req.queryParams("runId")));
+        query.setStatus(emptyToNull(req.queryParams("status")));
+        query.setScenarioPrefix(emptyToNull(req.queryParams("q")));
+        query.setCursor(emptyToNull(req.queryParams("cursor")));
+        try {
+            if (emptyToNull(req.queryParams("from")) != null) {
+                query.setFrom(LocalDateTime.parse(req.queryParams("from")));
+            }
+            if (emptyToNull(req.queryParams("to")) != null) {
+                query.setTo(LocalDateTime.parse(req.queryParams("to")));
+            }
+            if (emptyToNull(req.queryParams("limit")) != null) {
+                query.setLimit(Integer.parseInt(req.queryParams("limit")));
+            }
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Geçersiz parametre: " + e.getMessage());
+        }
+        if (emptyToNull(req.queryParams("fields")) != null) {
+            query.setFields(Arrays.asList(req.queryParams("fields").split("\\s*,\\s*")));
+        }
+        return query;
+    }
+
+    /**
+     * MONGO_MAX_POOL_SIZE, MONGO_MIN_POOL_SIZE ve MONGO_WAIT_QUEUE_TIMEOUT_MS ayarlarını bağlantı adresine ekler;
+     * böylece aynı URI'yi kullanan tüm client'lar aynı havuz boyutuyla açılır
+     */
+    private static String withPoolOptions(String mongoUri) {
+        StringBuilder options = new StringBuilder();
+        String[][] settings = {
+            {"MONGO_MAX_POOL_SIZE", "maxPoolSize"},
+            {"MONGO_MIN_POOL_SIZE", "minPoolSize"},
+            {"MONGO_WAIT_QUEUE_TIMEOUT_MS", "waitQueueTimeoutMS"}
+        };
+        for (String[] setting : settings) {
+            int value = envInt(setting[0], -1);
+            if (value >= 0) {
+                options.append(options.length() == 0 && !mongoUri.contains("?") ? '?' : '&')
+                    .append(setting[1]).append('=').append(value);
+            }
+        }
+        if (options.length() > 0) {
+            logger.info("MongoDB havuz ayarları: {}", options.substring(1));
+        }
+        return mongoUri + options;
+    }
+
+    private static String emptyToNull(String value) {
+        return (value == null || value.trim().isEmpty()) ? null : value.trim();
+    }
+
     public static void main(String[] args) {
 
         logger.info("TestNG Dashboard uygulaması başlatılıyor...");
@@ -47,6 +204,22 @@ public class DashboardApp {
         port(4567);
         logger.info("Uygulama port 4567'de başlatıldı.");
 
+        // Jetty istek havuzu bulkhead olarak boyutlanır: route'lar senkron Mongo çağrılarında bloklandığı için Mongo havuzundan
+        // fazla istek thread'i yalnızca bağlantı bekler. Varsayılan üst sınır Mongo havuzu + SSE bağlantıları (her biri bir
+        // thread tutar) + Jetty'nin acceptor/selector thread'leridir; fazla istekler sınırlı kuyrukta bekler, kuyruk dolunca
+        // bağlantı reddedilir.
+        int sseMaxClients = envInt("SSE_MAX_CLIENTS", 100);
+        int httpMaxThreads = Math.max(2, envInt("HTTP_MAX_THREADS",
+            Math.max(1, envInt("MONGO_MAX_POOL_SIZE", MONGO_DEFAULT_MAX_POOL_SIZE)) + sseMaxClients + JETTY_RESERVED_THREADS));
+        int httpMinThreads = Math.min(httpMaxThreads, Math.max(1, envInt("HTTP_MIN_THREADS", 8)));
+        int httpQueueCapacity = Math.max(1, envInt("HTTP_QUEUE_CAPACITY", httpMaxThreads));
+        QueuedThreadPool httpPool = new QueuedThreadPool(httpMaxThreads, httpMinThreads,
+            envInt("HTTP_IDLE_TIMEOUT_MS", 60000),
+            new BlockingArrayQueue<>(httpQueueCapacity, httpQueueCapacity, httpQueueCapacity));
+        httpPool.setName("http");
+        EmbeddedServers.add(EmbeddedServers.Identifiers.JETTY, new EmbeddedJettyFactory().withThreadPool(httpPool));
+        logger.info("HTTP thread havuzu: min {}, max {}, kuyruk {}", httpMinThreads, httpMaxThreads, httpQueueCapacity);
+
         // Static dosyalar için klasör ayarla
         staticFiles.location("/static");
         logger.info("Static dosyalar /static klasöründen sunuluyor.");
@@ -58,6 +231,8 @@ public class DashboardApp {
         String mongoPass = System.getenv("MONGO_PASS") != null ? System.getenv("MONGO_PASS") : "admin123";
         String mongoDb = "testng_reports";
         String mongoCollection = "executions";
+        String settingsCollection = System.getenv("MONGO_SETTINGS_COLLECTION") != null
+            ? System.getenv("MONGO_SETTINGS_COLLECTION") : "settings";
 
         String mongoUri;
         if (mongoUser != null && !mongoUser.isEmpty() && mongoPass != null && !mongoPass.isEmpty()) {
@@ -67,6 +242,8 @@ public class DashboardApp {
             mongoUri = String.format("mongodb://%s:%s/%s", mongoHost, mongoPort, mongoDb);
         }
 
+        mongoUri = withPoolOptions(mongoUri);
+
         logger.info("MongoDB URI: {}", mongoUri.replaceAll(":[^:/@]*@", ":***@"));
 
         // MongoService'i güvenli şekilde başlat
@@ -80,6 +257,115 @@ public class DashboardApp {
         }
 
         finalMongoService = mongoService;  // Sınıf değişkenine atama yapıldı
+
+        try {
+            executionRepository = new ExecutionRepository(mongoUri, mongoDb, mongoCollection);
+            runSummaryService = new RunSummaryService(executionRepository.getDatabase());
+            stepStatsService = new StepStatsService(executionRepository.getCollection());
+            failureClusterService = new FailureClusterService(executionRepository.getDatabase(), mongoCollection);
+            runDiffService = new RunDiffService(executionRepository.getDatabase(), mongoCollection);
+        } catch (Exception e) {
+            logger.error("ExecutionRepository başlatılamadı: ", e);
+        }
+
+        // Execution index'leri test process'leri yerine burada (veya IndexManager CLI ile) bir kez oluşturulur
+        if (executionRepository != null && !"false".equalsIgnoreCase(System.getenv("INDEX_BOOTSTRAP"))) {
+            try {
+                new IndexManager(executionRepository.getDatabase(), mongoCollection).ensureIndexes();
+            } catch (Exception e) {
+                logger.warn("Execution index'leri oluşturulamadı: {}", e.getMessage());
+            }
+        }
+
+        // Sıcak veri süresi: RETENTION_HOT_DAYS günden eski execution'lar TTL ile silinir, öncesinde özet/arşiv alınır
+        int retentionHotDays = envInt("RETENTION_HOT_DAYS", 0);
+        if (executionRepository != null && retentionHotDays > 0) {
+            try {
+                new IndexManager(executionRepository.getDatabase(), mongoCollection)
+                    .ensureRetentionIndex(TimeUnit.DAYS.toSeconds(retentionHotDays));
+                // Stack trace'ler execution'larla birlikte silinir
+                new IndexManager(executionRepository.getDatabase(), FailureClusterService.DETAILS_COLLECTION_NAME)
+                    .ensureRetentionIndex(TimeUnit.DAYS.toSeconds(retentionHotDays));
+                String archiveDir = System.getenv("RETENTION_ARCHIVE_DIR");
+                retentionService = new RetentionService(executionRepository.getDatabase(), mongoCollection,
+                    retentionHotDays, envInt("RETENTION_LEAD_HOURS", 24),
+                    archiveDir != null && !archiveDir.trim().isEmpty() ? Paths.get(archiveDir.trim()) : null);
+                retentionService.start(envInt("RETENTION_INTERVAL_MINUTES", 60));
+            } catch (Exception e) {
+                logger.error("RetentionService başlatılamadı: ", e);
+            }
+        }
+
+        // İçerik adresli ekran görüntüleri: gridfs (varsayılan) veya plugin'in local deposuyla aynı klasör
+        String screenshotStoreDir = System.getenv("SCREENSHOT_STORE_DIR");
+        if ("local".equalsIgnoreCase(System.getenv("SCREENSHOT_STORE"))) {
+            screenshotStore = new LocalScreenshotStore(Paths.get(
+                screenshotStoreDir != null ? screenshotStoreDir : "screenshot-store"));
+        } else if (executionRepository != null) {
+            String bucket = System.getenv("SCREENSHOT_STORE_BUCKET");
+            screenshotStore = new GridFsScreenshotStore(executionRepository.getDatabase(),
+                bucket != null ? bucket : "screenshots");
+        }
+
+        // Rapor sayfaları küçük thumbnail'leri yükler; tam görüntü yalnızca tıklanınca indirilir
+        if (screenshotStore != null) {
+            try {
+                String thumbnailDir = System.getenv("THUMBNAIL_CACHE_DIR");
+                thumbnailService = new ThumbnailService(screenshotStore,
+                    thumbnailDir != null ? Paths.get(thumbnailDir)
+                        : Paths.get(System.getProperty("java.io.tmpdir"), "dashboard-thumbnails"),
+                    envInt("THUMBNAIL_WIDTH", 320), 0.75f,
+                    envInt("THUMBNAIL_CACHE_MAX_MB", 256) * 1024L * 1024L,
+                    Math.max(1, envInt("THUMBNAIL_THREADS", 2)));
+            } catch (Exception e) {
+                logger.error("ThumbnailService başlatılamadı: ", e);
+            }
+        }
+
+        // Okuma cache'i: change stream varsa değişiklikte, yoksa CACHE_TTL_SECONDS sonunda yenilenir
+        if (executionRepository != null) {
+            dashboardCache = new DashboardCache(mongoCollection, settingsCollection,
+                envInt("CACHE_MAX_ENTRIES", 200), envInt("CACHE_TTL_SECONDS", 30) * 1000L);
+            changeStreamWatcher = new ChangeStreamWatcher(executionRepository.getDatabase(),
+                List.of(mongoCollection, RunSummaryService.collectionName(), settingsCollection));
+            dashboardCache.attach(changeStreamWatcher);
+            if (thumbnailService != null) {
+                changeStreamWatcher.addListener(thumbnailService::onChange);
+            }
+            runEventHub = new RunEventHub(executionRepository.getCollection(), sseMaxClients);
+            runEventHub.attach(changeStreamWatcher);
+            runEventHub.start(envInt("SSE_POLL_INTERVAL_MS", 2000));
+            changeStreamWatcher.start();
+        }
+        // Flaky test skorları artımlı olarak test_stats'ta tutulur; FLAKY_INTERVAL_MINUTES=0 kapatır
+        int flakyIntervalMinutes = envInt("FLAKY_INTERVAL_MINUTES", 15);
+        if (executionRepository != null && flakyIntervalMinutes > 0) {
+            try {
+                flakinessService = new FlakinessService(executionRepository.getDatabase(), mongoCollection,
+                    envInt("FLAKY_WINDOW_RUNS", 30), envInt("FLAKY_BACKFILL_DAYS", 30));
+                if (changeStreamWatcher != null) {
+                    flakinessService.attach(changeStreamWatcher);
+                }
+                flakinessService.start(flakyIntervalMinutes);
+            } catch (Exception e) {
+                logger.error("FlakinessService başlatılamadı: ", e);
+            }
+        }
+        // Test başına süre dağılımı artımlı olarak duration_stats'ta tutulur; DURATION_INTERVAL_MINUTES=0 kapatır
+        int durationIntervalMinutes = envInt("DURATION_INTERVAL_MINUTES", 15);
+        if (executionRepository != null && durationIntervalMinutes > 0) {
+            try {
+                durationRegressionService = new DurationRegressionService(executionRepository.getDatabase(), mongoCollection,
+                    envInt("DURATION_RECENT_RESULTS", 5), envInt("DURATION_BACKFILL_DAYS", 30));
+                if (changeStreamWatcher != null) {
+                    durationRegressionService.attach(changeStreamWatcher);
+                }
+                durationRegressionService.start(durationIntervalMinutes);
+            } catch (Exception e) {
+                logger.error("DurationRegressionService başlatılamadı: ", e);
+            }
+        }
+
         SchedulerService schedulerService = new SchedulerService();
 
         // Başlangıçta e-posta ayarlarını yükle ve zamanlayıcıyı başlat
@@ -114,14 +400,8 @@ public class DashboardApp {
             try {
                 logger.info("GET /dashboard isteği alındı.");
                 Map<String, Object> model = new HashMap<>();
-                if (finalMongoService != null) {
-                    List<Execution> executions = finalMongoService.getExecutions();
-                    model.put("executions", executions);
-                    logger.info("Dashboard'a {} adet execution yüklendi.", executions.size());
-                } else {
-                    model.put("executions", new ArrayList<Execution>());
-                    logger.warn("MongoDB bağlantısı yok, boş liste gösteriliyor.");
-                }
+                // Sayfa execution'ları /api/runs ve sayfalı /api/executions üzerinden yükler
+                model.put("executions", new ArrayList<Execution>());
                 // Add required model attributes for template
                 model.put("settings", getSettings());
                 model.put("activePage", "dashboard");
@@ -146,16 +426,9 @@ public class DashboardApp {
                 logger.info("GET /reports isteği alındı.");
                 Map<String, Object> model = new HashMap<>();
                 
-                if (finalMongoService != null) {
-                    List<Execution> allExecutions = finalMongoService.getExecutions();
-                    
-                    // Son 10 execution'ı al
-                    List<Execution> last10 = allExecutions.stream()
-                        .sorted((e1, e2) -> e2.getTimestamp().compareTo(e1.getTimestamp()))
-                        .limit(10)
-                        .collect(Collectors.toList());
-                    
-                    model.put("executions", last10);
+                if (executionRepository != null) {
+                    // Son 10 execution MongoDB'de timestamp index'i üzerinden alınır
+                    model.put("executions", executionRepository.findLatest(10));
                 } else {
                     model.put("executions", new ArrayList<Execution>());
                 }
@@ -211,6 +484,16 @@ public class DashboardApp {
             }
         });
 
+        get("/steps", (req, res) -> {
+            logger.info("GET /steps isteği alındı.");
+            Map<String, Object> model = new HashMap<>();
+            model.put("settings", getSettings());
+            model.put("activePage", "steps");
+            model.put("sidebarCollapsed", false);
+            model.put("timestamp", System.currentTimeMillis());
+            return templateEngine.render(new ModelAndView(model, "steps"));
+        });
+
         get("/settings", (req, res) -> {
             Map<String, Object> model = new HashMap<>();
             try {
@@ -227,7 +510,7 @@ public class DashboardApp {
                 }
                 
                 logger.info("MongoService bağlantısı başarılı, ayarlar yükleniyor...");
-                EmailSettings settings = finalMongoService.getEmailSettings();
+                EmailSettings settings = loadEmailSettings();
                 logger.info("Email ayarları alındı: {}", settings != null ? "başarılı" : "null");
                 
                 if (settings == null) {
@@ -280,7 +563,21 @@ public class DashboardApp {
             try {
                 logger.info("GET /api/executions isteği alındı.");
                 res.type("application/json");
+                if (!req.queryParams().isEmpty()) {
+                    // Filtre/sayfalama parametreleri varsa sorgu tamamen MongoDB'de çalışır
+                    if (executionRepository == null) {
+                        res.status(503);
+                        Map<String, String> error = new HashMap<>();
+                        error.put("error", "MongoDB bağlantısı yok");
+                        return error;
+                    }
+                    ExecutionQuery query = parseExecutionQuery(req);
+                    return dashboardCache != null
+                        ? dashboardCache.runPage(query, executionRepository)
+                        : executionRepository.find(query);
+                }
                 if (finalMongoService != null) {
+                    // Parametresiz eski liste sınırsızdır ve her insert'te eskir; cache'lenmez
                     List<Execution> executions = finalMongoService.getExecutions();
                     logger.info("API'den {} adet execution döndürüldü.", executions.size());
                     return executions;
@@ -288,6 +585,11 @@ public class DashboardApp {
                     logger.warn("MongoDB bağlantısı yok, boş liste döndürülüyor.");
                     return new ArrayList<Execution>();
                 }
+            } catch (IllegalArgumentException e) {
+                res.status(400);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return error;
             } catch (Exception e) {
                 logger.error("GET /api/executions hatası: ", e);
                 res.status(500);
@@ -297,12 +599,477 @@ public class DashboardApp {
             }
         }, new JsonTransformer());
 
+        get("/api/reports/latest", (req, res) -> {
+            try {
+                logger.info("GET /api/reports/latest isteği alındı.");
+                res.type("application/json");
+                if (executionRepository == null) {
+                    res.status(503);
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "MongoDB bağlantısı yok");
+                    return error;
+                }
+                int limit = 10;
+                if (emptyToNull(req.queryParams("limit")) != null) {
+                    try {
+                        limit = Integer.parseInt(req.queryParams("limit").trim());
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Geçersiz parametre: limit=" + req.queryParams("limit"));
+                    }
+                }
+                return executionRepository.findLatest(Math.max(1, Math.min(limit, ExecutionQuery.MAX_LIMIT)));
+            } catch (IllegalArgumentException e) {
+                res.status(400);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return error;
+            } catch (Exception e) {
+                logger.error("GET /api/reports/latest hatası: ", e);
+                res.status(500);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return error;
+            }
+        }, new JsonTransformer());
+
+        get("/api/steps/slowest", (req, res) -> {
+            try {
+                logger.info("GET /api/steps/slowest isteği alındı.");
+                res.type("application/json");
+                if (stepStatsService == null) {
+                    res.status(503);
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "MongoDB bağlantısı yok");
+                    return error;
+                }
+                int days;
+                int limit;
+                try {
+                    days = emptyToNull(req.queryParams("days")) != null ? Integer.parseInt(req.queryParams("days").trim()) : 30;
+                    limit = emptyToNull(req.queryParams("limit")) != null ? Integer.parseInt(req.queryParams("limit").trim()) : 20;
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Geçersiz parametre: " + e.getMessage());
+                }
+                Date since = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(Math.max(1, Math.min(days, 365))));
+                return stepStatsService.findSlowest(since, emptyToNull(req.queryParams("runId")), Math.max(1, Math.min(limit, 200)));
+            } catch (IllegalArgumentException e) {
+                res.status(400);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return error;
+            } catch (Exception e) {
+                logger.error("GET /api/steps/slowest hatası: ", e);
+                res.status(500);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return error;
+            }
+        }, new JsonTransformer());
+
+        get("/api/tests/flaky", (req, res) -> {
+            try {
+                logger.info("GET /api/tests/flaky isteği alındı.");
+                res.type("application/json");
+                if (flakinessService == null) {
+                    return new ArrayList<TestFlakiness>();
+                }
+                int limit;
+                int minResults;
+                double minScore;
+                try {
+                    limit = emptyToNull(req.queryParams("limit")) != null ? Integer.parseInt(req.queryParams("limit").trim()) : 50;
+                    minResults = emptyToNull(req.queryParams("minResults")) != null ? Integer.parseInt(req.queryParams("minResults").trim()) : 5;
+                    minScore = emptyToNull(req.queryParams("minScore")) != null ? Double.parseDouble(req.queryParams("minScore").trim()) : 0.1;
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Geçersiz parametre: " + e.getMessage());
+                }
+                return flakinessService.findFlaky(Math.max(1, Math.min(limit, 500)), Math.max(1, minResults), minScore);
+            } catch (IllegalArgumentException e) {
+                res.status(400);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return error;
+            } catch (Exception e) {
+                logger.error("GET /api/tests/flaky hatası: ", e);
+                res.status(500);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return error;
+            }
+        }, new JsonTransformer());
+
+        double durationRegressionFactor = envDouble("DURATION_REGRESSION_FACTOR", 1.5);
+        get("/api/tests/regressions", (req, res) -> {
+            try {
+                logger.info("GET /api/tests/regressions isteği alındı.");
+                res.type("application/json");
+                if (durationRegressionService == null) {
+                    return new ArrayList<DurationRegression>();
+                }
+                double factor;
+                int minBaseline;
+                int limit;
+                try {
+                    factor = emptyToNull(req.queryParams("factor")) != null ? Double.parseDouble(req.queryParams("factor").trim()) : durationRegressionFactor;
+                    minBaseline = emptyToNull(req.queryParams("minBaseline")) != null ? Integer.parseInt(req.queryParams("minBaseline").trim()) : 20;
+                    limit = emptyToNull(req.queryParams("limit")) != null ? Integer.parseInt(req.queryParams("limit").trim()) : 50;
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Geçersiz parametre: " + e.getMessage());
+                }
+                if (factor <= 0) {
+                    throw new IllegalArgumentException("factor pozitif olmalı");
+                }
+                return durationRegressionService.findRegressions(factor, Math.max(1, minBaseline), Math.max(1, Math.min(limit, 500)));
+            } catch (IllegalArgumentException e) {
+                res.status(400);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return error;
+            } catch (Exception e) {
+                logger.error("GET /api/tests/regressions hatası: ", e);
+                res.status(500);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return error;
+            }
+        }, new JsonTransformer());
+
+        get("/api/runs", (req, res) -> {
+            try {
+                logger.info("GET /api/runs isteği alındı.");
+                res.type("application/json");
+                if (runSummaryService == null) {
+                    return new ArrayList<RunSummary>();
+                }
+                return dashboardCache != null
+                    ? dashboardCache.recentRuns(50, () -> loadRecentRuns(50))
+                    : loadRecentRuns(50);
+            } catch (Exception e) {
+                logger.error("GET /api/runs hatası: ", e);
+                res.status(500);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return error;
+            }
+        }, new JsonTransformer());
+
+        get("/api/runs/:runId/summary", (req, res) -> {
+            try {
+                logger.info("GET /api/runs/:runId/summary isteği alındı: {}", req.params(":runId"));
+                res.type("application/json");
+                RunSummary summary = null;
+                if (runSummaryService != null) {
+                    summary = dashboardCache != null
+                        ? dashboardCache.runSummary(req.params(":runId"), runSummaryService)
+                        : runSummaryService.find(req.params(":runId"));
+                }
+                if (summary == null) {
+                    res.status(404);
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "Run bulunamadı: " + req.params(":runId"));
+                    return error;
+                }
+                return summary;
+            } catch (Exception e) {
+                logger.error("GET /api/runs/:runId/summary hatası: ", e);
+                res.status(500);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return error;
+            }
+        }, new JsonTransformer());
+
+        get("/api/runs/:runId/shards", (req, res) -> {
+            try {
+                logger.info("GET /api/runs/:runId/shards isteği alındı: {}", req.params(":runId"));
+                res.type("application/json");
+                if (runSummaryService == null) {
+                    return new ArrayList<RunShard>();
+                }
+                return runSummaryService.findShards(req.params(":runId"));
+            } catch (Exception e) {
+                logger.error("GET /api/runs/:runId/shards hatası: ", e);
+                res.status(500);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return error;
+            }
+        }, new JsonTransformer());
+
+        // Devam eden run'ın yeni sonuçlarını SSE ile gönderir; istemci yoklama yapmak yerine bu akışa abone olur
+        get("/api/runs/:runId/stream", (req, res) -> {
+            String runId = req.params(":runId");
+            logger.info("GET /api/runs/:runId/stream isteği alındı: {}", runId);
+            RunEventHub.Subscription subscription = runEventHub != null ? runEventHub.subscribe(runId) : null;
+            if (subscription == null) {
+                res.type("application/json");
+                res.status(503);
+                res.header("Retry-After", "30");
+                return gson.toJson(Map.of("error", runEventHub == null ? "MongoDB bağlantısı yok" : "Canlı akış kapasitesi dolu"));
+            }
+
+            res.type("text/event-stream");
+            res.header("Cache-Control", "no-cache");
+            res.header("X-Accel-Buffering", "no");
+            try (RunEventHub.Subscription active = subscription) {
+                OutputStream output = res.raw().getOutputStream();
+                output.write("retry: 5000\n\n".getBytes(StandardCharsets.UTF_8));
+                output.flush();
+                while (!Thread.currentThread().isInterrupted()) {
+                    String event = active.next(15, TimeUnit.SECONDS);
+                    // Boş kalan bağlantılar proxy'ler tarafından kapatılmasın diye yorum satırı gönderilir
+                    output.write((event != null ? event : ": keepalive\n\n").getBytes(StandardCharsets.UTF_8));
+                    output.flush();
+                }
+            } catch (IOException e) {
+                logger.debug("SSE istemcisi ayrıldı: {}", runId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "";
+        });
+
+        get("/api/runs/:runId/failures/clusters", (req, res) -> {
+            try {
+                logger.info("GET /api/runs/:runId/failures/clusters isteği alındı: {}", req.params(":runId"));
+                res.type("application/json");
+                if (failureClusterService == null) {
+                    res.status(503);
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "MongoDB bağlantısı yok");
+                    return error;
+                }
+                int examples;
+                try {
+                    examples = emptyToNull(req.queryParams("examples")) != null ? Integer.parseInt(req.queryParams("examples").trim()) : 5;
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Geçersiz parametre: " + e.getMessage());
+                }
+                return failureClusterService.findClusters(req.params(":runId"), Math.max(1, Math.min(examples, 50)));
+            } catch (IllegalArgumentException e) {
+                res.status(400);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return error;
+            } catch (Exception e) {
+                logger.error("GET /api/runs/:runId/failures/clusters hatası: ", e);
+                res.status(500);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return error;
+            }
+        }, new JsonTransformer());
+
+        get("/api/runs/:a/diff/:b", (req, res) -> {
+            try {
+                logger.info("GET /api/runs/:a/diff/:b isteği alındı: {} -> {}", req.params(":a"), req.params(":b"));
+                res.type("application/json");
+                if (runDiffService == null) {
+                    res.status(503);
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "MongoDB bağlantısı yok");
+                    return error;
+                }
+                int limit;
+                int top;
+                try {
+                    limit = emptyToNull(req.queryParams("limit")) != null ? Integer.parseInt(req.queryParams("limit").trim()) : 500;
+                    top = emptyToNull(req.queryParams("top")) != null ? Integer.parseInt(req.queryParams("top").trim()) : 20;
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Geçersiz parametre: " + e.getMessage());
+                }
+                return runDiffService.diff(req.params(":a"), req.params(":b"),
+                    Math.max(0, Math.min(limit, 20000)), Math.max(0, Math.min(top, 500)));
+            } catch (IllegalArgumentException e) {
+                res.status(400);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return error;
+            } catch (Exception e) {
+                logger.error("GET /api/runs/:a/diff/:b hatası: ", e);
+                res.status(500);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return error;
+            }
+        }, new JsonTransformer());
+
+        get("/api/executions/:id/stacktrace", (req, res) -> {
+            try {
+                logger.info("GET /api/executions/:id/stacktrace isteği alındı: {}", req.params(":id"));
+                if (failureClusterService == null) {
+                    res.type("application/json");
+                    res.status(503);
+                    return gson.toJson(Map.of("error", "MongoDB bağlantısı yok"));
+                }
+                String stackTrace = failureClusterService.findStackTrace(req.params(":id"));
+                if (stackTrace == null) {
+                    res.type("application/json");
+                    res.status(404);
+                    return gson.toJson(Map.of("error", "Stack trace bulunamadı"));
+                }
+                res.type("text/plain; charset=utf-8");
+                return stackTrace;
+            } catch (Exception e) {
+                logger.error("GET /api/executions/:id/stacktrace hatası: ", e);
+                res.type("application/json");
+                res.status(500);
+                return gson.toJson(Map.of("error", String.valueOf(e.getMessage())));
+            }
+        });
+
+        get("/api/runs/:runId/report.pdf", (req, res) -> {
+            String runId = req.params(":runId");
+            logger.info("GET /api/runs/:runId/report.pdf isteği alındı: {}", runId);
+            if (executionRepository == null) {
+                res.status(503);
+                return "MongoDB bağlantısı yok";
+            }
+
+            // Content-Length verilmez; PDF üretildikçe chunked olarak gönderilir
+            res.type("application/pdf");
+            res.header("Content-Disposition", "attachment; filename=\"test-report-" +
+                runId.replaceAll("[^A-Za-z0-9._-]", "_") + ".pdf\"");
+            try (MongoCursor<Execution> cursor = executionRepository.streamRun(runId)) {
+                PdfExporter.export(cursor, runId, res.raw().getOutputStream());
+            } catch (Exception e) {
+                logger.error("GET /api/runs/:runId/report.pdf hatası: ", e);
+                if (!res.raw().isCommitted()) {
+                    res.type("application/json");
+                    res.status(500);
+                    return gson.toJson(Map.of("error", String.valueOf(e.getMessage())));
+                }
+            }
+            return "";
+        });
+
+        // Hash içeriği belirlediği için yanıt hiç değişmez: güçlü ETag, immutable cache ve Range desteği
+        get("/api/screenshots/:hash", (req, res) -> {
+            String hash = req.params(":hash").toLowerCase();
+            if (!ScreenshotStore.isValidHash(hash)) {
+                res.type("application/json");
+                res.status(400);
+                return gson.toJson(Map.of("error", "Geçersiz screenshot hash"));
+            }
+            if (screenshotStore == null) {
+                res.type("application/json");
+                res.status(503);
+                return gson.toJson(Map.of("error", "Screenshot deposu yok"));
+            }
+
+            String etag = "\"" + hash + "\"";
+            res.header("ETag", etag);
+            res.header("Cache-Control", "public, max-age=31536000, immutable");
+            String ifNoneMatch = req.headers("If-None-Match");
+            if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+                res.status(304);
+                return "";
+            }
+
+            try {
+                ScreenshotStore.Blob blob = screenshotStore.find(hash);
+                if (blob == null) {
+                    res.raw().setHeader("Cache-Control", "no-store");
+                    res.type("application/json");
+                    res.status(404);
+                    return gson.toJson(Map.of("error", "Screenshot bulunamadı"));
+                }
+
+                ByteRange range;
+                try {
+                    range = ByteRange.parse(req.headers("Range"), blob.length());
+                } catch (IllegalArgumentException e) {
+                    res.status(416);
+                    res.header("Content-Range", "bytes */" + blob.length());
+                    return "";
+                }
+
+                long offset = range != null ? range.getStart() : 0;
+                long remaining = range != null ? range.length() : blob.length();
+                res.type(blob.contentType());
+                res.header("Accept-Ranges", "bytes");
+                if (range != null) {
+                    res.status(206);
+                    res.header("Content-Range", "bytes " + range.getStart() + "-" + range.getEnd() + "/" + blob.length());
+                }
+                res.raw().setContentLengthLong(remaining);
+
+                try (InputStream input = blob.open(offset)) {
+                    OutputStream output = res.raw().getOutputStream();
+                    byte[] buffer = new byte[64 * 1024];
+                    while (remaining > 0) {
+                        int read = input.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                        if (read < 0) {
+                            break;
+                        }
+                        output.write(buffer, 0, read);
+                        remaining -= read;
+                    }
+                    output.flush();
+                }
+            } catch (Exception e) {
+                logger.error("GET /api/screenshots/:hash hatası: ", e);
+                if (!res.raw().isCommitted()) {
+                    res.raw().setHeader("Cache-Control", "no-store");
+                    res.type("application/json");
+                    res.status(500);
+                    return gson.toJson(Map.of("error", String.valueOf(e.getMessage())));
+                }
+            }
+            return "";
+        });
+
+        get("/api/screenshots/:hash/thumb", (req, res) -> {
+            String hash = req.params(":hash").toLowerCase();
+            if (!ScreenshotStore.isValidHash(hash)) {
+                res.type("application/json");
+                res.status(400);
+                return gson.toJson(Map.of("error", "Geçersiz screenshot hash"));
+            }
+            if (thumbnailService == null) {
+                res.redirect("/api/screenshots/" + hash);
+                return "";
+            }
+
+            String etag = "\"" + hash + "-w" + thumbnailService.getWidth() + "\"";
+            res.header("ETag", etag);
+            res.header("Cache-Control", "public, max-age=31536000, immutable");
+            String ifNoneMatch = req.headers("If-None-Match");
+            if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+                res.status(304);
+                return "";
+            }
+
+            try {
+                Path thumbnail = thumbnailService.thumbnail(hash).get(15, TimeUnit.SECONDS);
+                if (thumbnail == null) {
+                    res.raw().setHeader("Cache-Control", "no-store");
+                    res.type("application/json");
+                    res.status(404);
+                    return gson.toJson(Map.of("error", "Screenshot bulunamadı"));
+                }
+                byte[] bytes = Files.readAllBytes(thumbnail);
+                res.type("image/jpeg");
+                res.raw().setContentLength(bytes.length);
+                res.raw().getOutputStream().write(bytes);
+            } catch (Exception e) {
+                // Thumbnail üretilemezse (kuyruk dolu, zaman aşımı, okunamayan görüntü) tam görüntüye yönlendirilir
+                logger.warn("Thumbnail üretilemedi {}: {}", hash, e.toString());
+                if (!res.raw().isCommitted()) {
+                    res.raw().setHeader("ETag", null);
+                    res.raw().setHeader("Cache-Control", "no-store");
+                    res.redirect("/api/screenshots/" + hash);
+                }
+            }
+            return "";
+        });
+
         get("/api/settings", (req, res) -> {
             try {
                 logger.info("GET /api/settings isteği alındı.");
                 res.type("application/json");
                 if (finalMongoService != null) {
-                    EmailSettings settings = finalMongoService.getEmailSettings();
+                    EmailSettings settings = loadEmailSettings();
                     return settings != null ? settings : new EmailSettings();
                 } else {
                     logger.warn("MongoDB bağlantısı yok, varsayılan ayarlar döndürülüyor.");
@@ -399,6 +1166,9 @@ public class DashboardApp {
                     settings = gson.fromJson(req.body(), EmailSettings.class);
                     finalMongoService.saveEmailSettings(settings);
                 }
+                if (dashboardCache != null) {
+                    dashboardCache.invalidateSettings();
+                }
                 
                 // Restart the scheduler with new settings
                 schedulerService.stop();
@@ -430,12 +1200,34 @@ public class DashboardApp {
             logger.info("Uygulama kapatılıyor, SchedulerService durduruluyor...");
             schedulerService.stop();
             logger.info("SchedulerService durduruldu.");
+            if (changeStreamWatcher != null) {
+                changeStreamWatcher.close();
+            }
+            if (retentionService != null) {
+                retentionService.close();
+            }
+            if (thumbnailService != null) {
+                thumbnailService.close();
+            }
+            if (runEventHub != null) {
+                runEventHub.close();
+            }
+            if (flakinessService != null) {
+                flakinessService.close();
+            }
+            if (durationRegressionService != null) {
+                durationRegressionService.close();
+            }
+            if (executionRepository != null) {
+                executionRepository.close();
+            }
         }));
 
         logger.info("Tüm rotalar ve endpoint'ler başarıyla tanımlandı.");
         logger.info("Dashboard hazır:");
         logger.info("- Ana sayfa: http://localhost:4567/dashboard");
         logger.info("- Raporlar: http://localhost:4567/reports");
+        logger.info("- Adımlar: http://localhost:4567/steps");
         logger.info("- Ayarlar: http://localhost:4567/settings");
         logger.info("- API Test: http://localhost:4567/api/test");
     }
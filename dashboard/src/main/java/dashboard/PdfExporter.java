@@ -6,34 +6,45 @@ import com.lowagie.text.Image;
 import com.lowagie.text.pdf.*;
 import dashboard.model.Execution;
 
-import java.awt.*;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 
 public class PdfExporter {
 
+    /** Tamamlanan satırlar bu aralıkla PDF'e yazılıp bellekten atılır */
+    private static final int FLUSH_EVERY_ROWS = 200;
+
     public static byte[] export(List<Execution> executions, String runId) throws Exception {
-        Document document = new Document(PageSize.A4.rotate(), 36, 36, 54, 36);
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PdfWriter.getInstance(document, baos);
+        export(executions.iterator(), runId, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Execution'ları verilen iterator'dan (ör. MongoDB cursor'ı) okuyup PDF'i doğrudan out'a yazar.
+     * Tablo setComplete(false) ile parça parça eklendiği için bellek kullanımı run boyutundan bağımsızdır.
+     * out kapatılmaz.
+     */
+    public static void export(Iterator<Execution> executions, String runId, OutputStream out) throws Exception {
+        Document document = new Document(PageSize.A4.rotate(), 36, 36, 54, 36);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
         document.open();
 
-        try {
-            Image logo = Image.getInstance(PdfExporter.class.getClassLoader().getResource("public/logo.png"));
-            logo.scaleToFit(120, 60);
-            logo.setAlignment(Image.ALIGN_LEFT);
+        PdfRenderContext context = PdfRenderContext.getDefault();
+
+        Image logo = context.newLogo();
+        if (logo != null) {
             document.add(logo);
-        } catch (Exception e) {
-            // Logo bulunamazsa sorun olmaz
         }
 
-        Font titleFont = new Font(Font.HELVETICA, 18, Font.BOLD);
-        Paragraph title = new Paragraph("Test Execution Report", titleFont);
+        Paragraph title = new Paragraph("Test Execution Report", context.getTitleFont());
         title.setAlignment(Element.ALIGN_CENTER);
         document.add(title);
 
-        Font runIdFont = new Font(Font.HELVETICA, 12, Font.NORMAL);
-        Paragraph runIdParagraph = new Paragraph("Run ID: " + (runId != null ? runId : "-"), runIdFont);
+        Paragraph runIdParagraph = new Paragraph("Run ID: " + (runId != null ? runId : "-"), context.getRunIdFont());
         runIdParagraph.setAlignment(Element.ALIGN_CENTER);
         runIdParagraph.setSpacingAfter(20);
         document.add(runIdParagraph);
@@ -41,60 +52,38 @@ public class PdfExporter {
         // Screenshot kolonu çıkarıldığı için tablo 5 sütun
         PdfPTable table = new PdfPTable(new float[]{3, 1, 1, 2, 3});
         table.setWidthPercentage(100);
-
-        addHeaderCell(table, "Scenario");
-        addHeaderCell(table, "Status");
-        addHeaderCell(table, "Duration (ms)");
-        addHeaderCell(table, "Timestamp");
-        addHeaderCell(table, "Error Message");
+        table.setHeaderRows(1);
+        table.setComplete(false);
+        // Veri hücreleri bu varsayılan hücrenin kopyası olarak eklenir
+        table.getDefaultCell().setPadding(5);
+
+        table.addCell(context.headerCell("Scenario"));
+        table.addCell(context.headerCell("Status"));
+        table.addCell(context.headerCell("Duration (ms)"));
+        table.addCell(context.headerCell("Timestamp"));
+        table.addCell(context.headerCell("Error Message"));
         // Screenshot başlığı kaldırıldı
 
-        for (Execution e : executions) {
-            addCell(table, e.getScenario() != null ? e.getScenario() : "-");
-            addStatusCell(table, e.getStatus());
-            addCell(table, String.valueOf(e.getDuration()));
-            addCell(table, e.getTimestamp() != null ? e.getTimestamp().toString() : "-");
-            addCell(table, e.getError() != null ? e.getError() : "-");
+        int rows = 0;
+        while (executions.hasNext()) {
+            Execution e = executions.next();
+            Font font = context.getCellFont();
+            table.addCell(new Phrase(e.getScenario() != null ? e.getScenario() : "-", font));
+            table.addCell(context.statusCell(e.getStatus()));
+            table.addCell(new Phrase(String.valueOf(e.getDuration()), font));
+            table.addCell(new Phrase(e.getTimestamp() != null ? e.getTimestamp().toString() : "-", font));
+            table.addCell(new Phrase(e.getError() != null ? e.getError() : "-", font));
             // Screenshot hücresi tamamen çıkarıldı
+
+            if (++rows % FLUSH_EVERY_ROWS == 0) {
+                // Tamamlanan satırları yaz ve tablodan at
+                document.add(table);
+            }
         }
 
+        table.setComplete(true);
         document.add(table);
         document.close();
-        return baos.toByteArray();
-    }
-
-    private static void addHeaderCell(PdfPTable table, String text) {
-        Font font = new Font(Font.HELVETICA, 12, Font.BOLD);
-        PdfPCell cell = new PdfPCell(new Phrase(text, font));
-        cell.setBackgroundColor(new Color(200, 200, 200));
-        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-        cell.setPadding(5);
-        table.addCell(cell);
-    }
-
-    private static void addCell(PdfPTable table, String text) {
-        Font font = new Font(Font.HELVETICA, 10);
-        PdfPCell cell = new PdfPCell(new Phrase(text, font));
-        cell.setPadding(5);
-        table.addCell(cell);
-    }
-
-    private static void addStatusCell(PdfPTable table, String status) {
-        Font font = new Font(Font.HELVETICA, 10, Font.BOLD);
-        PdfPCell cell = new PdfPCell(new Phrase(status != null ? status : "-", font));
-        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-        cell.setPadding(5);
-
-        if ("PASSED".equalsIgnoreCase(status)) {
-            cell.setBackgroundColor(new Color(25, 135, 84));
-        } else if ("FAILED".equalsIgnoreCase(status)) {
-            cell.setBackgroundColor(new Color(220, 53, 69));
-        } else if ("SKIPPED".equalsIgnoreCase(status)) {
-            cell.setBackgroundColor(new Color(255, 193, 7));
-        } else {
-            cell.setBackgroundColor(new Color(211, 211, 211));
-        }
-
-        table.addCell(cell);
+        out.flush();
     }
 }
@@ -0,0 +1,105 @@
+package dashboard;
+
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.Image;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+
+import java.awt.Color;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PDF raporları için bir kez oluşturulan font, renk, durum hücresi ve logo nesneleri.
+ * Nesneler oluşturulduktan sonra değiştirilmez; PdfPTable.addCell hücreyi kopyaladığı için
+ * aynı context eşzamanlı export'lar arasında paylaşılabilir.
+ */
+public final class PdfRenderContext {
+
+    private static final PdfRenderContext DEFAULT = new PdfRenderContext("public/logo.png");
+
+    private static final Color HEADER_BACKGROUND = new Color(200, 200, 200);
+    private static final Color UNKNOWN_STATUS_BACKGROUND = new Color(211, 211, 211);
+
+    private final Font titleFont = new Font(Font.HELVETICA, 18, Font.BOLD);
+    private final Font runIdFont = new Font(Font.HELVETICA, 12, Font.NORMAL);
+    private final Font headerFont = new Font(Font.HELVETICA, 12, Font.BOLD);
+    private final Font cellFont = new Font(Font.HELVETICA, 10);
+    private final Font statusFont = new Font(Font.HELVETICA, 10, Font.BOLD);
+    private final Map<String, PdfPCell> statusCells = new ConcurrentHashMap<>();
+    private final Image logo;
+
+    private PdfRenderContext(String logoResource) {
+        statusCells.put("PASSED", statusCell("PASSED", new Color(25, 135, 84)));
+        statusCells.put("FAILED", statusCell("FAILED", new Color(220, 53, 69)));
+        statusCells.put("SKIPPED", statusCell("SKIPPED", new Color(255, 193, 7)));
+        this.logo = loadLogo(logoResource);
+    }
+
+    public static PdfRenderContext getDefault() {
+        return DEFAULT;
+    }
+
+    public Font getTitleFont() { return titleFont; }
+
+    public Font getRunIdFont() { return runIdFont; }
+
+    public Font getHeaderFont() { return headerFont; }
+
+    public Font getCellFont() { return cellFont; }
+
+    /**
+     * Decode edilmiş logonun bu doküman için kopyası; logo yoksa null
+     */
+    public Image newLogo() {
+        return logo != null ? Image.getInstance(logo) : null;
+    }
+
+    public PdfPCell headerCell(String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, headerFont));
+        cell.setBackgroundColor(HEADER_BACKGROUND);
+        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        cell.setPadding(5);
+        return cell;
+    }
+
+    /**
+     * Duruma göre önceden hazırlanmış hücre; tabloya eklenirken kopyalanır, doğrudan değiştirilmemelidir
+     */
+    public PdfPCell statusCell(String status) {
+        if (status == null) {
+            return statusCells.computeIfAbsent("-", key -> statusCell(key, UNKNOWN_STATUS_BACKGROUND));
+        }
+        PdfPCell cell = statusCells.get(status.toUpperCase());
+        if (cell != null) {
+            return cell;
+        }
+        return statusCells.computeIfAbsent(status, key -> statusCell(key, UNKNOWN_STATUS_BACKGROUND));
+    }
+
+    private PdfPCell statusCell(String text, Color background) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, statusFont));
+        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        cell.setPadding(5);
+        cell.setBackgroundColor(background);
+        return cell;
+    }
+
+    private static Image loadLogo(String resource) {
+        try {
+            URL url = PdfRenderContext.class.getClassLoader().getResource(resource);
+            if (url == null) {
+                return null;
+            }
+            Image image = Image.getInstance(url);
+            image.scaleToFit(120, 60);
+            image.setAlignment(Image.ALIGN_LEFT);
+            return image;
+        } catch (Exception e) {
+            // Logo bulunamazsa sorun olmaz
+            return null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package dashboard.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Son başarılı koşularının medyan süresi geçmiş p95 süresini aşan test
+ */
+public class DurationRegression {
+    private String testName;
+    /** recentMedian / baselineP95 */
+    private double ratio;
+    private long recentMedian;
+    private long baselineP50;
+    private long baselineP95;
+    private long baselineCount;
+    /** Son başarılı süreler eskiden yeniye (ms) */
+    private long[] recentDurations;
+    private String lastRunId;
+    private LocalDateTime lastSeen;
+
+    public String getTestName() { return testName; }
+    public void setTestName(String testName) { this.testName = testName; }
+
+    public double getRatio() { return ratio; }
+    public void setRatio(double ratio) { this.ratio = ratio; }
+
+    public long getRecentMedian() { return recentMedian; }
+    public void setRecentMedian(long recentMedian) { this.recentMedian = recentMedian; }
+
+    public long getBaselineP50() { return baselineP50; }
+    public void setBaselineP50(long baselineP50) { this.baselineP50 = baselineP50; }
+
+    public long getBaselineP95() { return baselineP95; }
+    public void setBaselineP95(long baselineP95) { this.baselineP95 = baselineP95; }
+
+    public long getBaselineCount() { return baselineCount; }
+    public void setBaselineCount(long baselineCount) { this.baselineCount = baselineCount; }
+
+    public long[] getRecentDurations() { return recentDurations; }
+    public void setRecentDurations(long[] recentDurations) { this.recentDurations = recentDurations; }
+
+    public String getLastRunId() { return lastRunId; }
+    public void setLastRunId(String lastRunId) { this.lastRunId = lastRunId; }
+
+    public LocalDateTime getLastSeen() { return lastSeen; }
+    public void setLastSeen(LocalDateTime lastSeen) { this.lastSeen = lastSeen; }
+}
@@ -0,0 +1,29 @@
+package dashboard.model;
+
+import java.util.List;
+
+/**
+ * Keyset sayfalamalı execution sonucu; nextCursor null ise son sayfadır
+ */
+public class ExecutionPage {
+    private List<Execution> items;
+    private String nextCursor;
+    private int limit;
+
+    public ExecutionPage() {}
+
+    public ExecutionPage(List<Execution> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    public List<Execution> getItems() { return items; }
+    public void setItems(List<Execution> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
@@ -0,0 +1,45 @@
+package dashboard.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * /api/executions için filtre, sayfalama ve projection parametreleri
+ */
+public class ExecutionQuery {
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private String runId;
+    private String status;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String scenarioPrefix;
+    private String cursor;
+    private int limit = DEFAULT_LIMIT;
+    private List<String> fields;
+
+    public String getRunId() { return runId; }
+    public void setRunId(String runId) { this.runId = runId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+
+    public String getScenarioPrefix() { return scenarioPrefix; }
+    public void setScenarioPrefix(String scenarioPrefix) { this.scenarioPrefix = scenarioPrefix; }
+
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = Math.max(1, Math.min(limit, MAX_LIMIT)); }
+
+    public List<String> getFields() { return fields; }
+    public void setFields(List<String> fields) { this.fields = fields; }
+}
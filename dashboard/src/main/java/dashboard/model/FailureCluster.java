@@ -0,0 +1,54 @@
+package dashboard.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bir run'daki aynı errorSignature'a sahip hataların grubu
+ */
+public class FailureCluster {
+    private String signature;
+    private String message;
+    private long count;
+    private long distinctTests;
+    private LocalDateTime firstSeen;
+    private LocalDateTime lastSeen;
+    private List<Example> examples;
+
+    public String getSignature() { return signature; }
+    public void setSignature(String signature) { this.signature = signature; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public long getDistinctTests() { return distinctTests; }
+    public void setDistinctTests(long distinctTests) { this.distinctTests = distinctTests; }
+
+    public LocalDateTime getFirstSeen() { return firstSeen; }
+    public void setFirstSeen(LocalDateTime firstSeen) { this.firstSeen = firstSeen; }
+
+    public LocalDateTime getLastSeen() { return lastSeen; }
+    public void setLastSeen(LocalDateTime lastSeen) { this.lastSeen = lastSeen; }
+
+    public List<Example> getExamples() { return examples; }
+    public void setExamples(List<Example> examples) { this.examples = examples; }
+
+    /**
+     * Gruptaki örnek execution; stack trace /api/executions/:id/stacktrace ile alınır
+     */
+    public static class Example {
+        private String id;
+        private String testName;
+
+        public Example(String id, String testName) {
+            this.id = id;
+            this.testName = testName;
+        }
+
+        public String getId() { return id; }
+        public String getTestName() { return testName; }
+    }
+}
@@ -0,0 +1,128 @@
+package dashboard.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * İki run'ın test adına göre karşılaştırması; base eski, head yeni run'dır
+ */
+public class RunDiff {
+    private String baseRunId;
+    private String headRunId;
+    private int baseTests;
+    private int headTests;
+    private int unchanged;
+    private int newlyFailingCount;
+    private int newlyPassingCount;
+    private int stillFailingCount;
+    private int addedCount;
+    private int removedCount;
+    /** Her iki run'da da süresi olan testlerin toplam süreleri (ms) */
+    private long baseDuration;
+    private long headDuration;
+    /** Listelerden biri limit'e ulaştıysa true; sayaçlar her zaman tamdır */
+    private boolean truncated;
+    private List<Entry> newlyFailing = new ArrayList<>();
+    private List<Entry> newlyPassing = new ArrayList<>();
+    private List<Entry> stillFailing = new ArrayList<>();
+    private List<Entry> added = new ArrayList<>();
+    private List<Entry> removed = new ArrayList<>();
+    /** Süresi en çok artan / azalan testler */
+    private List<Entry> slower = new ArrayList<>();
+    private List<Entry> faster = new ArrayList<>();
+
+    public String getBaseRunId() { return baseRunId; }
+    public void setBaseRunId(String baseRunId) { this.baseRunId = baseRunId; }
+
+    public String getHeadRunId() { return headRunId; }
+    public void setHeadRunId(String headRunId) { this.headRunId = headRunId; }
+
+    public int getBaseTests() { return baseTests; }
+    public void setBaseTests(int baseTests) { this.baseTests = baseTests; }
+
+    public int getHeadTests() { return headTests; }
+    public void setHeadTests(int headTests) { this.headTests = headTests; }
+
+    public int getUnchanged() { return unchanged; }
+    public void setUnchanged(int unchanged) { this.unchanged = unchanged; }
+
+    public int getNewlyFailingCount() { return newlyFailingCount; }
+    public void setNewlyFailingCount(int newlyFailingCount) { this.newlyFailingCount = newlyFailingCount; }
+
+    public int getNewlyPassingCount() { return newlyPassingCount; }
+    public void setNewlyPassingCount(int newlyPassingCount) { this.newlyPassingCount = newlyPassingCount; }
+
+    public int getStillFailingCount() { return stillFailingCount; }
+    public void setStillFailingCount(int stillFailingCount) { this.stillFailingCount = stillFailingCount; }
+
+    public int getAddedCount() { return addedCount; }
+    public void setAddedCount(int addedCount) { this.addedCount = addedCount; }
+
+    public int getRemovedCount() { return removedCount; }
+    public void setRemovedCount(int removedCount) { this.removedCount = removedCount; }
+
+    public long getBaseDuration() { return baseDuration; }
+    public void setBaseDuration(long baseDuration) { this.baseDuration = baseDuration; }
+
+    public long getHeadDuration() { return headDuration; }
+    public void setHeadDuration(long headDuration) { this.headDuration = headDuration; }
+
+    public boolean isTruncated() { return truncated; }
+    public void setTruncated(boolean truncated) { this.truncated = truncated; }
+
+    public List<Entry> getNewlyFailing() { return newlyFailing; }
+    public void setNewlyFailing(List<Entry> newlyFailing) { this.newlyFailing = newlyFailing; }
+
+    public List<Entry> getNewlyPassing() { return newlyPassing; }
+    public void setNewlyPassing(List<Entry> newlyPassing) { this.newlyPassing = newlyPassing; }
+
+    public List<Entry> getStillFailing() { return stillFailing; }
+    public void setStillFailing(List<Entry> stillFailing) { this.stillFailing = stillFailing; }
+
+    public List<Entry> getAdded() { return added; }
+    public void setAdded(List<Entry> added) { this.added = added; }
+
+    public List<Entry> getRemoved() { return removed; }
+    public void setRemoved(List<Entry> removed) { this.removed = removed; }
+
+    public List<Entry> getSlower() { return slower; }
+    public void setSlower(List<Entry> slower) { this.slower = slower; }
+
+    public List<Entry> getFaster() { return faster; }
+    public void setFaster(List<Entry> faster) { this.faster = faster; }
+
+    /**
+     * Bir testin iki run'daki sonucu; testin olmadığı tarafın alanları null'dır
+     */
+    public static class Entry {
+        private String testName;
+        private String baseStatus;
+        private String headStatus;
+        private Long baseDuration;
+        private Long headDuration;
+        private Long durationDelta;
+        private String baseId;
+        private String headId;
+
+        public Entry(String testName, String baseStatus, String headStatus, Long baseDuration, Long headDuration,
+                     String baseId, String headId) {
+            this.testName = testName;
+            this.baseStatus = baseStatus;
+            this.headStatus = headStatus;
+            this.baseDuration = baseDuration;
+            this.headDuration = headDuration;
+            this.durationDelta = baseDuration != null && headDuration != null ? headDuration - baseDuration : null;
+            this.baseId = baseId;
+            this.headId = headId;
+        }
+
+        public String getTestName() { return testName; }
+        public String getBaseStatus() { return baseStatus; }
+        public String getHeadStatus() { return headStatus; }
+        public Long getBaseDuration() { return baseDuration; }
+        public Long getHeadDuration() { return headDuration; }
+        public Long getDurationDelta() { return durationDelta; }
+        public String getBaseId() { return baseId; }
+        public String getHeadId() { return headId; }
+    }
+}
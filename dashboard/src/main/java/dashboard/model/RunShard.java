@@ -0,0 +1,54 @@
+package dashboard.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bölünmüş bir run'ın tek agent'ına (shard) ait ilerleme sayaçları; run_shards koleksiyonundan okunur
+ */
+public class RunShard {
+    private String shardId;
+    /** RUNNING veya FINISHED */
+    private String status;
+    private long total;
+    private long passed;
+    private long failed;
+    private long skipped;
+    private long totalDuration;
+    private String host;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime updatedAt;
+
+    public String getShardId() { return shardId; }
+    public void setShardId(String shardId) { this.shardId = shardId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public long getPassed() { return passed; }
+    public void setPassed(long passed) { this.passed = passed; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getSkipped() { return skipped; }
+    public void setSkipped(long skipped) { this.skipped = skipped; }
+
+    public long getTotalDuration() { return totalDuration; }
+    public void setTotalDuration(long totalDuration) { this.totalDuration = totalDuration; }
+
+    public String getHost() { return host; }
+    public void setHost(String host) { this.host = host; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,85 @@
+package dashboard.model;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * run_summaries koleksiyonundaki run başına özet
+ */
+public class RunSummary {
+    private String runId;
+    private long total;
+    private long passed;
+    private long failed;
+    private long skipped;
+    private Map<String, Long> counts;
+    private long avgDuration;
+    private long p50Duration;
+    private long p95Duration;
+    private long maxDuration;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private String host;
+    private String framework;
+    private boolean archived;
+    /** Bölünmüş run'larda birleştirilen ve biten shard sayıları; bölünmemiş run'larda 0 */
+    private int shards;
+    private int shardsFinished;
+
+    public RunSummary() {}
+
+    public RunSummary(String runId) {
+        this.runId = runId;
+    }
+
+    public String getRunId() { return runId; }
+    public void setRunId(String runId) { this.runId = runId; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public long getPassed() { return passed; }
+    public void setPassed(long passed) { this.passed = passed; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getSkipped() { return skipped; }
+    public void setSkipped(long skipped) { this.skipped = skipped; }
+
+    public Map<String, Long> getCounts() { return counts; }
+    public void setCounts(Map<String, Long> counts) { this.counts = counts; }
+
+    public long getAvgDuration() { return avgDuration; }
+    public void setAvgDuration(long avgDuration) { this.avgDuration = avgDuration; }
+
+    public long getP50Duration() { return p50Duration; }
+    public void setP50Duration(long p50Duration) { this.p50Duration = p50Duration; }
+
+    public long getP95Duration() { return p95Duration; }
+    public void setP95Duration(long p95Duration) { this.p95Duration = p95Duration; }
+
+    public long getMaxDuration() { return maxDuration; }
+    public void setMaxDuration(long maxDuration) { this.maxDuration = maxDuration; }
+
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+
+    public LocalDateTime getEndTime() { return endTime; }
+    public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
+
+    public String getHost() { return host; }
+    public void setHost(String host) { this.host = host; }
+
+    public String getFramework() { return framework; }
+    public void setFramework(String framework) { this.framework = framework; }
+
+    public boolean isArchived() { return archived; }
+    public void setArchived(boolean archived) { this.archived = archived; }
+
+    public int getShards() { return shards; }
+    public void setShards(int shards) { this.shards = shards; }
+
+    public int getShardsFinished() { return shardsFinished; }
+    public void setShardsFinished(int shardsFinished) { this.shardsFinished = shardsFinished; }
+}
@@ -0,0 +1,39 @@
+package dashboard.model;
+
+/**
+ * Bir step definition kalıbının run'lar boyunca süre dağılımı
+ */
+public class StepStats {
+    private String pattern;
+    private long count;
+    private long failed;
+    private long avgDuration;
+    private long p50Duration;
+    private long p95Duration;
+    private long p99Duration;
+    private long maxDuration;
+
+    public String getPattern() { return pattern; }
+    public void setPattern(String pattern) { this.pattern = pattern; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getAvgDuration() { return avgDuration; }
+    public void setAvgDuration(long avgDuration) { this.avgDuration = avgDuration; }
+
+    public long getP50Duration() { return p50Duration; }
+    public void setP50Duration(long p50Duration) { this.p50Duration = p50Duration; }
+
+    public long getP95Duration() { return p95Duration; }
+    public void setP95Duration(long p95Duration) { this.p95Duration = p95Duration; }
+
+    public long getP99Duration() { return p99Duration; }
+    public void setP99Duration(long p99Duration) { this.p99Duration = p99Duration; }
+
+    public long getMaxDuration() { return maxDuration; }
+    public void setMaxDuration(long maxDuration) { this.maxDuration = maxDuration; }
+}
@@ -0,0 +1,58 @@
+package dashboard.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bir testin son N sonucundaki geçme/kalma dizisinden hesaplanan kararsızlık skoru
+ */
+public class TestFlakiness {
+    private String testName;
+    private double score;
+    private int results;
+    private int failures;
+    private int flips;
+    private double flipRate;
+    private int failureClusters;
+    private double avgClusterLength;
+    private String lastStatus;
+    private String lastRunId;
+    private LocalDateTime lastSeen;
+    /** Son sonuçlar eskiden yeniye, P/F dizisi olarak (örn. "PPFPFFP") */
+    private String sequence;
+
+    public String getTestName() { return testName; }
+    public void setTestName(String testName) { this.testName = testName; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+
+    public int getResults() { return results; }
+    public void setResults(int results) { this.results = results; }
+
+    public int getFailures() { return failures; }
+    public void setFailures(int failures) { this.failures = failures; }
+
+    public int getFlips() { return flips; }
+    public void setFlips(int flips) { this.flips = flips; }
+
+    public double getFlipRate() { return flipRate; }
+    public void setFlipRate(double flipRate) { this.flipRate = flipRate; }
+
+    public int getFailureClusters() { return failureClusters; }
+    public void setFailureClusters(int failureClusters) { this.failureClusters = failureClusters; }
+
+    public double getAvgClusterLength() { return avgClusterLength; }
+    public void setAvgClusterLength(double avgClusterLength) { this.avgClusterLength = avgClusterLength; }
+
+    public String getLastStatus() { return lastStatus; }
+    public void setLastStatus(String lastStatus) { this.lastStatus = lastStatus; }
+
+    public String getLastRunId() { return lastRunId; }
+    public void setLastRunId(String lastRunId) { this.lastRunId = lastRunId; }
+
+    public LocalDateTime getLastSeen() { return lastSeen; }
+    public void setLastSeen(LocalDateTime lastSeen) { this.lastSeen = lastSeen; }
+
+    public String getSequence() { return sequence; }
+    public void setSequence(String sequence) { this.sequence = sequence; }
+}
@@ -0,0 +1,83 @@
+package dashboard.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.util.Date;
+
+/**
+ * Artımlı analiz işlerinin execution koleksiyonunda kaldığı yeri (ingestedAt, _id) tutar.
+ * İşler yalnızca checkpoint'ten sonra alınan execution'ları okur; geçmiş her çalışmada yeniden taranmaz.
+ */
+public class AnalyticsCheckpoints {
+
+    public static final String COLLECTION_NAME = "analytics_checkpoints";
+
+    private final MongoCollection<Document> checkpoints;
+
+    public AnalyticsCheckpoints(MongoDatabase database) {
+        this.checkpoints = database.getCollection(COLLECTION_NAME);
+    }
+
+    /**
+     * @return işin son işlediği execution'ın konumu; ilk çalışmada (veya eski, yalnızca _id'li checkpoint'te) null
+     */
+    public Position get(String job) {
+        Document document = checkpoints.find(Filters.eq("_id", job)).first();
+        if (document == null || document.getDate("lastIngestedAt") == null || document.getObjectId("lastId") == null) {
+            return null;
+        }
+        return new Position(document.getDate("lastIngestedAt"), document.getObjectId("lastId"));
+    }
+
+    public void save(String job, Position position, long processed) {
+        checkpoints.updateOne(Filters.eq("_id", job),
+            Updates.combine(
+                Updates.set("lastIngestedAt", position.getIngestedAt()),
+                Updates.set("lastId", position.getId()),
+                Updates.set("updatedAt", new Date()),
+                Updates.inc("processed", processed)),
+            new UpdateOptions().upsert(true));
+    }
+
+    /**
+     * Execution'ın işlenme sırasındaki konumu: sunucunun verdiği ingestedAt, eşitlikte _id
+     */
+    public static final class Position implements Comparable<Position> {
+        private final Date ingestedAt;
+        private final ObjectId id;
+
+        public Position(Date ingestedAt, ObjectId id) {
+            this.ingestedAt = ingestedAt;
+            this.id = id;
+        }
+
+        /**
+         * Execution dokümanının konumu; ingestedAt yoksa null
+         */
+        public static Position of(Document execution) {
+            Date ingestedAt = execution.getDate(IncrementalExecutionJob.INGESTED_AT);
+            ObjectId id = execution.getObjectId("_id");
+            return ingestedAt != null && id != null ? new Position(ingestedAt, id) : null;
+        }
+
+        public Date getIngestedAt() {
+            return ingestedAt;
+        }
+
+        public ObjectId getId() {
+            return id;
+        }
+
+        @Override
+        public int compareTo(Position other) {
+            int order = ingestedAt.compareTo(other.ingestedAt);
+            return order != 0 ? order : id.compareTo(other.id);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package dashboard.service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Veritabanındaki seçili koleksiyonları tek bir change stream ile izler ve değişiklikleri dinleyicilere iletir.
+ * Change stream yalnızca replica set / sharded cluster'da çalışır; standalone mongod'da izleme durur
+ * ve {@link #isActive()} false döner, dinleyiciler TTL'e güvenmelidir.
+ */
+public class ChangeStreamWatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeStreamWatcher.class);
+
+    /** "The $changeStream stage is only supported on replica sets" */
+    private static final int CHANGE_STREAM_NOT_SUPPORTED = 40573;
+    private static final long MAX_AWAIT_MILLIS = 1_000;
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+    private final MongoDatabase database;
+    private final List<String> collections;
+    private final List<Consumer<ChangeStreamDocument<Document>>> listeners = new CopyOnWriteArrayList<>();
+    private final Thread worker;
+    private volatile boolean closed = false;
+    private volatile boolean active = false;
+
+    public ChangeStreamWatcher(MongoDatabase database, List<String> collections) {
+        this.database = database;
+        this.collections = List.copyOf(collections);
+        this.worker = new Thread(this::watchLoop, "mongo-change-stream");
+        this.worker.setDaemon(true);
+    }
+
+    public void addListener(Consumer<ChangeStreamDocument<Document>> listener) {
+        listeners.add(listener);
+    }
+
+    public void start() {
+        worker.start();
+    }
+
+    /**
+     * Change stream açık ve değişiklikleri iletiyorsa true
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    private void watchLoop() {
+        long backoffMillis = 1_000;
+        while (!closed) {
+            // Hata sonrası resume token kullanılmaz; kesinti süresince kaçırılanlar için dinleyiciler zaten temizlenir
+            ChangeStreamIterable<Document> stream = database
+                .watch(List.of(Aggregates.match(Filters.in("ns.coll", collections))))
+                .maxAwaitTime(MAX_AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+                if (!active) {
+                    active = true;
+                    logger.info("Change stream başlatıldı: {}", collections);
+                }
+                backoffMillis = 1_000;
+                while (!closed) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        dispatch(change);
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAM_NOT_SUPPORTED) {
+                    active = false;
+                    logger.warn("Change stream desteklenmiyor (standalone mongod), cache yalnızca TTL ile yenilenecek.");
+                    return;
+                }
+                backoffMillis = retry(e, backoffMillis);
+            } catch (Exception e) {
+                if (closed) {
+                    break;
+                }
+                backoffMillis = retry(e, backoffMillis);
+            }
+        }
+        active = false;
+    }
+
+    private long retry(Exception e, long backoffMillis) {
+        active = false;
+        // Kesinti sırasında kaçırılan değişiklikler için dinleyicilere null gönderilir; tüm cache temizlenmeli
+        dispatch(null);
+        logger.warn("Change stream hatası, {}ms sonra yeniden denenecek: {}", backoffMillis, e.getMessage());
+        try {
+            Thread.sleep(backoffMillis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            closed = true;
+        }
+        return Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+    }
+
+    private void dispatch(ChangeStreamDocument<Document> change) {
+        for (Consumer<ChangeStreamDocument<Document>> listener : listeners) {
+            try {
+                listener.accept(change);
+            } catch (Exception e) {
+                logger.error("Change stream dinleyici hatası: ", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            worker.join(MAX_AWAIT_MILLIS * 3);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
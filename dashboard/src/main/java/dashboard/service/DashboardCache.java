@@ -0,0 +1,138 @@
+package dashboard.service;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import dashboard.model.EmailSettings;
+import dashboard.model.ExecutionPage;
+import dashboard.model.ExecutionQuery;
+import dashboard.model.RunSummary;
+import dashboard.util.TtlCache;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Dashboard okumaları için bellek içi cache: run bazlı execution sayfaları, run özetleri ve e-posta ayarları.
+ * Yalnızca sayfalı veya özet sonuçlar tutulur; koleksiyonun tamamını döndüren okumalar cache'lenmez.
+ * Girdiler boyut ve TTL ile sınırlıdır; {@link ChangeStreamWatcher} aktifse değişen run/ayar hemen geçersiz kılınır,
+ * standalone mongod'da yalnızca TTL ile yenilenir.
+ */
+public class DashboardCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardCache.class);
+
+    private static final String SETTINGS = "settings";
+
+    private final String executionsCollection;
+    private final String settingsCollection;
+    private final String summariesCollection = RunSummaryService.collectionName();
+
+    private final TtlCache<String, ExecutionPage> runPages;
+    private final TtlCache<Integer, List<RunSummary>> recentRuns;
+    private final TtlCache<String, RunSummary> runSummaries;
+    private final TtlCache<String, EmailSettings> settings;
+
+    public DashboardCache(String executionsCollection, String settingsCollection, int maxEntries, long ttlMillis) {
+        this.executionsCollection = executionsCollection;
+        this.settingsCollection = settingsCollection;
+        this.runPages = new TtlCache<>(maxEntries, ttlMillis);
+        this.recentRuns = new TtlCache<>(8, ttlMillis);
+        this.runSummaries = new TtlCache<>(maxEntries, ttlMillis);
+        this.settings = new TtlCache<>(1, ttlMillis);
+        logger.info("DashboardCache hazır - en fazla {} girdi, TTL {}ms", maxEntries, ttlMillis);
+    }
+
+    /**
+     * Cache'i verilen watcher'ın değişikliklerine bağlar
+     */
+    public void attach(ChangeStreamWatcher watcher) {
+        watcher.addListener(this::onChange);
+    }
+
+    /**
+     * Yalnızca runId içeren sorgular cache'lenir; diğer sorgular her seferinde MongoDB'ye gider
+     */
+    public ExecutionPage runPage(ExecutionQuery query, ExecutionRepository repository) {
+        if (query.getRunId() == null) {
+            return repository.find(query);
+        }
+        return runPages.get(pageKey(query), key -> repository.find(query));
+    }
+
+    public List<RunSummary> recentRuns(int limit, Supplier<List<RunSummary>> loader) {
+        return recentRuns.get(limit, key -> loader.get());
+    }
+
+    public RunSummary runSummary(String runId, RunSummaryService service) {
+        return runSummaries.get(runId, service::find);
+    }
+
+    public EmailSettings settings(Supplier<EmailSettings> loader) {
+        return settings.get(SETTINGS, key -> loader.get());
+    }
+
+    public void invalidateSettings() {
+        settings.invalidateAll();
+    }
+
+    public void invalidateRun(String runId) {
+        String prefix = runId + "|";
+        runPages.invalidateIf(key -> key.startsWith(prefix));
+        runSummaries.invalidate(runId);
+        recentRuns.invalidateAll();
+    }
+
+    public void invalidateAll() {
+        runPages.invalidateAll();
+        recentRuns.invalidateAll();
+        runSummaries.invalidateAll();
+        settings.invalidateAll();
+    }
+
+    private void onChange(ChangeStreamDocument<Document> change) {
+        if (change == null || change.getNamespace() == null) {
+            // Watcher kesintisi veya drop/invalidate: neyin değiştiği bilinmiyor
+            invalidateAll();
+            return;
+        }
+
+        String collection = change.getNamespace().getCollectionName();
+        if (settingsCollection.equals(collection)) {
+            settings.invalidateAll();
+        } else if (summariesCollection.equals(collection)) {
+            String runId = documentKeyString(change);
+            if (runId != null) {
+                runSummaries.invalidate(runId);
+            } else {
+                runSummaries.invalidateAll();
+            }
+            recentRuns.invalidateAll();
+        } else if (executionsCollection.equals(collection)) {
+            Document fullDocument = change.getFullDocument();
+            String runId = fullDocument != null ? fullDocument.getString("runId") : null;
+            if (change.getOperationType() == OperationType.INSERT && runId != null) {
+                invalidateRun(runId);
+            } else {
+                // update/delete olaylarında runId bilinmez
+                runPages.invalidateAll();
+            }
+        }
+    }
+
+    private static String documentKeyString(ChangeStreamDocument<Document> change) {
+        if (change.getDocumentKey() == null) {
+            return null;
+        }
+        BsonValue id = change.getDocumentKey().get("_id");
+        return id != null && id.isString() ? id.asString().getValue() : null;
+    }
+
+    private static String pageKey(ExecutionQuery query) {
+        return query.getRunId() + "|" + query.getStatus() + "|" + query.getFrom() + "|" + query.getTo() + "|" +
+            query.getScenarioPrefix() + "|" + query.getCursor() + "|" + query.getLimit() + "|" + query.getFields();
+    }
+}
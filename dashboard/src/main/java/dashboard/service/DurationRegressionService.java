@@ -0,0 +1,247 @@
+package dashboard.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import dashboard.model.DurationRegression;
+import dashboard.util.DurationHistogram;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test başına süre dağılımını duration_stats koleksiyonunda artımlı olarak tutar ve son süreleri geçmiş p95'ini
+ * aşan testleri bulur.
+ * <p>
+ * Her test dokümanında son recentSize başarılı sonuç ayrı tutulur; bu pencereden çıkan süreler run_summaries ile aynı
+ * logaritmik kovalara (bkz. {@link DurationHistogram}) eklenir. Kovalardaki toplam MAX_BASELINE'ı geçince sayaçlar
+ * yarıya indirilir, böylece eski sonuçların ağırlığı zamanla azalır. Yalnızca PASSED sonuçlar sayılır; erken kalan
+ * testlerin kısa süreleri dağılımı bozmaz.
+ * <p>
+ * Kovalara ekleme tekrarlanırsa sayaçlar şişer; bu yüzden her test dokümanı işlediği son execution'ın konumunu
+ * (appliedAt, appliedId) saklar ve çökme sonrası tekrar gelen batch'te bu konuma kadarki execution'lar atlanır.
+ */
+public class DurationRegressionService extends IncrementalExecutionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(DurationRegressionService.class);
+
+    public static final String COLLECTION_NAME = "duration_stats";
+
+    private static final int MAX_BASELINE = 2000;
+
+    private final MongoCollection<Document> stats;
+    private final int recentSize;
+
+    /**
+     * @param recentSize   "son süreler" olarak karşılaştırılan başarılı sonuç sayısı
+     * @param backfillDays checkpoint yoksa geçmişin kaç gün geriden başlanarak işleneceği
+     */
+    public DurationRegressionService(MongoDatabase database, String collectionName, int recentSize, int backfillDays) {
+        super(database, collectionName, "duration-regression", backfillDays,
+            List.of("testName", "status", "duration", "runId", "timestamp"));
+        this.stats = database.getCollection(COLLECTION_NAME);
+        this.recentSize = Math.max(1, recentSize);
+        try {
+            stats.createIndex(Indexes.descending("ratio"));
+        } catch (Exception e) {
+            logger.warn("duration_stats index oluşturulamadı: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    protected void apply(List<Document> batch) {
+        Map<String, List<Document>> pointsByTest = new LinkedHashMap<>();
+        Map<ObjectId, AnalyticsCheckpoints.Position> positions = new HashMap<>();
+        Map<String, AnalyticsCheckpoints.Position> lastByTest = new HashMap<>();
+        for (Document execution : batch) {
+            String testName = execution.getString("testName");
+            Object duration = execution.get("duration");
+            if (testName == null || !"PASSED".equals(execution.getString("status"))
+                    || !(duration instanceof Number) || ((Number) duration).longValue() <= 0) {
+                continue;
+            }
+            Object timestamp = execution.get("timestamp");
+            ObjectId id = execution.getObjectId("_id");
+            AnalyticsCheckpoints.Position position = AnalyticsCheckpoints.Position.of(execution);
+            pointsByTest.computeIfAbsent(testName, key -> new ArrayList<>()).add(new Document("i", id)
+                .append("r", execution.getString("runId"))
+                .append("d", ((Number) duration).longValue())
+                .append("t", timestamp instanceof Date ? timestamp : id.getDate()));
+            positions.put(id, position);
+            // Batch (ingestedAt, _id) sırasıyla geldiği için son görülen en büyük konumdur
+            lastByTest.put(testName, position);
+        }
+        if (pointsByTest.isEmpty()) {
+            return;
+        }
+
+        Map<String, Document> existing = new HashMap<>();
+        stats.find(Filters.in("_id", pointsByTest.keySet()))
+            .projection(Projections.include("baseline", "recent", "appliedAt", "appliedId"))
+            .forEach(document -> existing.put(document.getString("_id"), document));
+
+        List<WriteModel<Document>> writes = new ArrayList<>(pointsByTest.size());
+        Date now = new Date();
+        for (Map.Entry<String, List<Document>> entry : pointsByTest.entrySet()) {
+            Document current = existing.get(entry.getKey());
+            Map<String, Long> baseline = new HashMap<>();
+            Map<ObjectId, Document> merged = new LinkedHashMap<>();
+            AnalyticsCheckpoints.Position applied = null;
+            if (current != null) {
+                if (current.getDate("appliedAt") != null && current.getObjectId("appliedId") != null) {
+                    applied = new AnalyticsCheckpoints.Position(current.getDate("appliedAt"), current.getObjectId("appliedId"));
+                }
+                Document buckets = current.get("baseline", Document.class);
+                if (buckets != null) {
+                    buckets.forEach((bucket, count) -> baseline.put(bucket, (long) number(count)));
+                }
+                List<Document> recent = current.getList("recent", Document.class);
+                if (recent != null) {
+                    recent.forEach(point -> merged.put(point.getObjectId("i"), point));
+                }
+            }
+            // Daha önce işlenmiş execution'lar (çökme sonrası tekrar gelen batch) ne pencereye ne kovalara tekrar girer
+            int added = 0;
+            for (Document point : entry.getValue()) {
+                AnalyticsCheckpoints.Position position = positions.get(point.getObjectId("i"));
+                if (applied == null || position == null || position.compareTo(applied) > 0) {
+                    merged.put(point.getObjectId("i"), point);
+                    added++;
+                }
+            }
+            if (added == 0) {
+                continue;
+            }
+
+            List<Document> points = new ArrayList<>(merged.values());
+            points.sort(Comparator.comparing((Document point) -> point.getDate("t"))
+                .thenComparing(point -> point.getObjectId("i")));
+            if (points.size() > recentSize) {
+                for (Document old : points.subList(0, points.size() - recentSize)) {
+                    baseline.merge(String.valueOf(DurationHistogram.bucketOf((long) number(old.get("d")))), 1L, Long::sum);
+                }
+                points = new ArrayList<>(points.subList(points.size() - recentSize, points.size()));
+            }
+            long baselineCount = baseline.values().stream().mapToLong(Long::longValue).sum();
+            if (baselineCount > MAX_BASELINE) {
+                baseline.replaceAll((bucket, count) -> count / 2);
+                baseline.values().removeIf(count -> count == 0);
+                baselineCount = baseline.values().stream().mapToLong(Long::longValue).sum();
+            }
+
+            Document last = points.get(points.size() - 1);
+            Document update = summarize(baseline, points)
+                .append("baseline", new Document(new HashMap<String, Object>(baseline)))
+                .append("baselineCount", baselineCount)
+                .append("recent", points)
+                .append("lastRunId", last.getString("r"))
+                .append("lastSeen", last.getDate("t"))
+                .append("updatedAt", now);
+            AnalyticsCheckpoints.Position position = lastByTest.get(entry.getKey());
+            if (position != null) {
+                update.append("appliedAt", position.getIngestedAt()).append("appliedId", position.getId());
+            }
+            writes.add(new UpdateOneModel<>(Filters.eq("_id", entry.getKey()), new Document("$set", update),
+                new UpdateOptions().upsert(true)));
+        }
+        if (!writes.isEmpty()) {
+            stats.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        }
+    }
+
+    /**
+     * Geçmiş kovalardan p50/p95, son sürelerden medyan ve oranı hesaplar; geçmiş boşsa oran 0'dır
+     */
+    static Document summarize(Map<String, Long> baseline, List<Document> recent) {
+        long p50 = DurationHistogram.quantile(baseline, 0.50);
+        long p95 = DurationHistogram.quantile(baseline, 0.95);
+        long[] durations = recent.stream().mapToLong(point -> (long) number(point.get("d"))).sorted().toArray();
+        long median = durations.length == 0 ? 0
+            : durations.length % 2 == 1 ? durations[durations.length / 2]
+            : (durations[durations.length / 2 - 1] + durations[durations.length / 2]) / 2;
+        double ratio = p95 > 0 ? Math.round(median * 1000.0 / p95) / 1000.0 : 0.0;
+        return new Document("baselineP50", p50)
+            .append("baselineP95", p95)
+            .append("recentMedian", median)
+            .append("ratio", ratio);
+    }
+
+    /**
+     * Son süre medyanı geçmiş p95'in factor katını aşan testler, oranı en yüksek önce
+     * @param minBaseline karşılaştırma için gereken en az geçmiş sonuç sayısı
+     */
+    public List<DurationRegression> findRegressions(double factor, int minBaseline, int limit) {
+        List<DurationRegression> result = new ArrayList<>();
+        stats.find(Filters.and(Filters.gte("ratio", factor), Filters.gte("baselineCount", minBaseline)))
+            .sort(Sorts.descending("ratio"))
+            .limit(limit)
+            .forEach(document -> result.add(toDurationRegression(document)));
+        return result;
+    }
+
+    static DurationRegression toDurationRegression(Document document) {
+        DurationRegression regression = new DurationRegression();
+        regression.setTestName(document.getString("_id"));
+        regression.setRatio(number(document.get("ratio")));
+        regression.setRecentMedian((long) number(document.get("recentMedian")));
+        regression.setBaselineP50((long) number(document.get("baselineP50")));
+        regression.setBaselineP95((long) number(document.get("baselineP95")));
+        regression.setBaselineCount((long) number(document.get("baselineCount")));
+        regression.setLastRunId(document.getString("lastRunId"));
+        regression.setLastSeen(ExecutionRepository.toLocalDateTime(document.get("lastSeen")));
+
+        List<Document> recent = document.getList("recent", Document.class);
+        regression.setRecentDurations(recent == null ? new long[0]
+            : recent.stream().mapToLong(point -> (long) number(point.get("d"))).toArray());
+        return regression;
+    }
+
+    /**
+     * Rapor e-postasına eklenebilecek HTML tablo; liste boşsa boş metin döner
+     */
+    public static String toHtmlSection(List<DurationRegression> regressions) {
+        if (regressions == null || regressions.isEmpty()) {
+            return "";
+        }
+        StringBuilder html = new StringBuilder()
+            .append("<h3>Süresi uzayan testler</h3>")
+            .append("<table border=\"1\" cellpadding=\"4\" cellspacing=\"0\" style=\"border-collapse:collapse\">")
+            .append("<tr><th>Test</th><th>Son medyan (ms)</th><th>Geçmiş p95 (ms)</th><th>Oran</th><th>Son run</th></tr>");
+        for (DurationRegression regression : regressions) {
+            html.append("<tr><td>").append(escapeHtml(regression.getTestName()))
+                .append("</td><td>").append(regression.getRecentMedian())
+                .append("</td><td>").append(regression.getBaselineP95())
+                .append("</td><td>").append(String.format("%.2fx", regression.getRatio()))
+                .append("</td><td>").append(escapeHtml(regression.getLastRunId()))
+                .append("</td></tr>");
+        }
+        return html.append("</table>").toString();
+    }
+
+    private static String escapeHtml(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+}
@@ -0,0 +1,293 @@
+package dashboard.service;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import dashboard.model.Execution;
+import dashboard.model.ExecutionPage;
+import dashboard.model.ExecutionQuery;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Execution koleksiyonuna filtre, sıralama ve sayfalamayı MongoDB tarafında yaptıran sorgu katmanı.
+ * Reporter'ın yazdığı alan adlarını (testName, errorMessage, screenshotPath) dashboard modeline çevirir.
+ */
+public class ExecutionRepository implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionRepository.class);
+
+    /** API alan adı -> doküman alan adları */
+    private static final Map<String, List<String>> FIELD_MAPPING = Map.of(
+        "id", List.of("_id"),
+        "scenario", List.of("testName", "scenario"),
+        "status", List.of("status"),
+        "duration", List.of("duration"),
+        "timestamp", List.of("timestamp"),
+        "runId", List.of("runId"),
+        "error", List.of("errorMessage", "error"),
+        "screenshot", List.of("screenshotPath", "screenshot")
+    );
+
+    private final MongoClient mongoClient;
+    private final MongoDatabase database;
+    private final MongoCollection<Document> collection;
+
+    public ExecutionRepository(String mongoUri, String dbName, String collectionName) {
+        this.mongoClient = MongoClients.create(mongoUri);
+        this.database = mongoClient.getDatabase(dbName);
+        this.collection = database.getCollection(collectionName);
+        logger.info("ExecutionRepository {}.{} koleksiyonu için hazır.", dbName, collectionName);
+    }
+
+    public MongoDatabase getDatabase() {
+        return database;
+    }
+
+    public MongoCollection<Document> getCollection() {
+        return collection;
+    }
+
+    /**
+     * Filtreleri, keyset sayfalamayı ve projection'ı MongoDB'ye aktararak tek bir sayfa döndürür.
+     * Sıralama timestamp ve _id üzerinde azalan yöndedir; cursor son dokümanın (timestamp, _id) çiftidir. Date, eski
+     * string ve eksik timestamp'li dokümanlar aynı sayfalamada MongoDB'nin tip sırasıyla (Date, String, null) gelir.
+     */
+    public ExecutionPage find(ExecutionQuery query) {
+        List<Bson> filters = new ArrayList<>();
+
+        if (query.getRunId() != null) {
+            filters.add(Filters.eq("runId", query.getRunId()));
+        }
+        if (query.getStatus() != null) {
+            filters.add(Filters.eq("status", query.getStatus()));
+        }
+        if (query.getFrom() != null) {
+            filters.add(Filters.gte("timestamp", timestampValue(query.getFrom())));
+        }
+        if (query.getTo() != null) {
+            filters.add(Filters.lt("timestamp", timestampValue(query.getTo())));
+        }
+        if (query.getScenarioPrefix() != null && !query.getScenarioPrefix().isEmpty()) {
+            // Başa sabitlenmiş regex testName index'ini kullanabilir
+            filters.add(Filters.regex("testName", "^" + Pattern.quote(query.getScenarioPrefix())));
+        }
+        if (query.getCursor() != null && !query.getCursor().isEmpty()) {
+            filters.add(afterCursor(query.getCursor()));
+        }
+
+        FindIterable<Document> iterable = collection
+            .find(filters.isEmpty() ? new Document() : Filters.and(filters))
+            .sort(Sorts.descending("timestamp", "_id"))
+            .limit(query.getLimit() + 1);
+
+        Bson projection = projection(query.getFields());
+        if (projection != null) {
+            iterable.projection(projection);
+        }
+
+        List<Document> documents = iterable.into(new ArrayList<>());
+        String nextCursor = null;
+        if (documents.size() > query.getLimit()) {
+            documents = documents.subList(0, query.getLimit());
+            nextCursor = encodeCursor(documents.get(documents.size() - 1));
+        }
+
+        List<Execution> items = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            items.add(toExecution(document));
+        }
+        return new ExecutionPage(items, nextCursor, query.getLimit());
+    }
+
+    /**
+     * En yeni limit adet execution'ı döndürür. Yalnızca timestamp üzerinde sıralandığı için
+     * timestamp index'i geriye doğru taranır ve limit'e ulaşınca durulur; koleksiyon büyüklüğünden bağımsızdır.
+     */
+    public List<Execution> findLatest(int limit) {
+        List<Execution> result = new ArrayList<>(limit);
+        collection.find()
+            .sort(Sorts.descending("timestamp"))
+            .limit(limit)
+            .map(ExecutionRepository::toExecution)
+            .into(result);
+        return result;
+    }
+
+    /**
+     * Bir run'ın execution'larını zaman sırasıyla, listeye toplamadan cursor üzerinden döndürür.
+     * Dönen cursor çağıran tarafından kapatılmalıdır.
+     */
+    public MongoCursor<Execution> streamRun(String runId) {
+        return collection.find(Filters.eq("runId", runId))
+            .projection(Projections.include("testName", "scenario", "status", "duration", "timestamp", "runId",
+                "errorMessage", "error"))
+            .sort(Sorts.ascending("timestamp"))
+            .batchSize(500)
+            .map(ExecutionRepository::toExecution)
+            .cursor();
+    }
+
+    /**
+     * En son çalışan runId'leri, son sonuç zamanına göre azalan sırada döndürür
+     */
+    public List<String> findRecentRunIds(int limit) {
+        List<String> runIds = new ArrayList<>();
+        collection.aggregate(List.of(
+            Aggregates.match(Filters.exists("runId")),
+            Aggregates.group("$runId", Accumulators.max("lastTimestamp", "$timestamp")),
+            Aggregates.sort(Sorts.descending("lastTimestamp")),
+            Aggregates.limit(limit)
+        )).forEach(document -> runIds.add(document.getString("_id")));
+        return runIds;
+    }
+
+    /**
+     * Dokümanı dashboard modeline çevirir; projection dışında kalan alanlar null/0 olur
+     */
+    public static Execution toExecution(Document document) {
+        Execution execution = new Execution();
+        Object id = document.get("_id");
+        execution.setId(id instanceof ObjectId ? ((ObjectId) id).toHexString() : (id != null ? id.toString() : null));
+        execution.setScenario(firstString(document, "testName", "scenario"));
+        execution.setStatus(document.getString("status"));
+        Object duration = document.get("duration");
+        execution.setDuration(duration instanceof Number ? ((Number) duration).longValue() : 0L);
+        execution.setTimestamp(toLocalDateTime(document.get("timestamp")));
+        execution.setRunId(document.getString("runId"));
+        execution.setError(firstString(document, "errorMessage", "error"));
+        String screenshot = firstString(document, "screenshotPath", "screenshot");
+        execution.setScreenshot(screenshot != null && !screenshot.isEmpty() ? screenshot : null);
+        return execution;
+    }
+
+    static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Date) {
+            return LocalDateTime.ofInstant(((Date) value).toInstant(), ZoneId.systemDefault());
+        }
+        if (value instanceof String) {
+            try {
+                return LocalDateTime.parse((String) value, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Şema v2'de timestamp BSON Date'tir; aralık sorguları Date ile yapılır.
+     * Eski (string timestamp'li) dokümanlar SchemaMigration ile dönüştürülmelidir.
+     */
+    static Object timestampValue(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static String firstString(Document document, String... keys) {
+        for (String key : keys) {
+            Object value = document.get(key);
+            if (value != null) {
+                return value.toString();
+            }
+        }
+        return null;
+    }
+
+    private static Bson projection(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return null;
+        }
+        Set<String> include = new LinkedHashSet<>();
+        include.add("timestamp"); // cursor için her zaman gerekli
+        for (String field : fields) {
+            List<String> mapped = FIELD_MAPPING.get(field.trim());
+            if (mapped != null) {
+                include.addAll(mapped);
+            }
+        }
+        include.remove("_id");
+        return Projections.include(new ArrayList<>(include));
+    }
+
+    /**
+     * Son dokümandan sonraki sayfanın cursor'ı: "d:&lt;millis&gt;", "s:&lt;string&gt;" veya "n:" timestamp'i ve _id, base64url
+     */
+    static String encodeCursor(Document last) {
+        Object timestamp = last.get("timestamp");
+        String value = (timestamp instanceof Date) ? "d:" + ((Date) timestamp).getTime()
+            : timestamp != null ? "s:" + timestamp : "n:";
+        String raw = value + "|" + last.getObjectId("_id").toHexString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * (timestamp, _id) azalan sıralamasında cursor'dan sonra gelen dokümanların filtresi
+     * @throws IllegalArgumentException cursor çözülemezse
+     */
+    static Bson afterCursor(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Geçersiz cursor: " + cursor);
+        }
+        int separator = raw.lastIndexOf('|');
+        if (separator < 2 || !ObjectId.isValid(raw.substring(separator + 1))) {
+            throw new IllegalArgumentException("Geçersiz cursor: " + cursor);
+        }
+
+        String value = raw.substring(0, separator);
+        ObjectId id = new ObjectId(raw.substring(separator + 1));
+        // Azalan sıralamada tipler Date > String > null/eksik sırasıyla gelir, ama lt/eq yalnızca aynı tipteki değerleri
+        // eşler; eski string timestamp'li ve timestamp'siz dokümanlar sonraki sayfalarda ayrıca eklenir
+        Bson missing = Filters.and(Filters.eq("timestamp", null), Filters.lt("_id", id));
+        if (value.startsWith("n:")) {
+            return missing;
+        }
+        Object timestamp;
+        try {
+            timestamp = value.startsWith("d:") ? new Date(Long.parseLong(value.substring(2))) : value.substring(2);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Geçersiz cursor: " + cursor);
+        }
+        List<Bson> after = new ArrayList<>(List.of(
+            Filters.lt("timestamp", timestamp),
+            Filters.and(Filters.eq("timestamp", timestamp), Filters.lt("_id", id))));
+        if (timestamp instanceof Date) {
+            after.add(Filters.type("timestamp", BsonType.STRING));
+        }
+        after.add(Filters.eq("timestamp", null));
+        return Filters.or(after);
+    }
+
+    @Override
+    public void close() {
+        mongoClient.close();
+    }
+}
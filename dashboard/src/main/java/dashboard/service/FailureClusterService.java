@@ -0,0 +1,118 @@
+package dashboard.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import dashboard.model.FailureCluster;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Bir run'ın hatalarını reporter'ın yazma anında hesapladığı errorSignature'a göre gruplar ve
+ * execution_details'teki sıkıştırılmış tam stack trace'leri okur.
+ * İmzası olmayan eski dokümanlar hata mesajının kendisine göre gruplanır.
+ */
+public class FailureClusterService {
+
+    public static final String DETAILS_COLLECTION_NAME = "execution_details";
+
+    private final MongoCollection<Document> executions;
+    private final MongoCollection<Document> details;
+
+    public FailureClusterService(MongoDatabase database, String collectionName) {
+        this.executions = database.getCollection(collectionName);
+        this.details = database.getCollection(DETAILS_COLLECTION_NAME);
+    }
+
+    /**
+     * Run'ın FAILED sonuçlarını imzaya göre gruplar, en kalabalık grup önce
+     * @param examples grup başına döndürülecek örnek execution sayısı
+     */
+    public List<FailureCluster> findClusters(String runId, int examples) {
+        List<FailureCluster> result = new ArrayList<>();
+        executions.aggregate(List.of(
+            // runId_1_status_1_timestamp_-1 index'i ile yalnızca run'ın hataları okunur
+            Aggregates.match(Filters.and(Filters.eq("runId", runId), Filters.eq("status", "FAILED"))),
+            Aggregates.sort(Sorts.ascending("timestamp")),
+            new Document("$group", new Document("_id", new Document("$ifNull", List.of("$errorSignature", "$errorMessage")))
+                .append("count", new Document("$sum", 1))
+                .append("message", new Document("$first", "$errorMessage"))
+                .append("tests", new Document("$addToSet", "$testName"))
+                .append("examples", new Document("$push", new Document("id", "$_id").append("testName", "$testName")))
+                .append("firstSeen", new Document("$min", "$timestamp"))
+                .append("lastSeen", new Document("$max", "$timestamp"))),
+            new Document("$project", new Document("count", 1)
+                .append("message", 1)
+                .append("firstSeen", 1)
+                .append("lastSeen", 1)
+                .append("distinctTests", new Document("$size", "$tests"))
+                .append("examples", new Document("$slice", List.of("$examples", examples)))),
+            Aggregates.sort(Sorts.orderBy(Sorts.descending("count"), Sorts.ascending("_id")))
+        )).forEach(document -> result.add(toFailureCluster(document)));
+        return result;
+    }
+
+    private static FailureCluster toFailureCluster(Document document) {
+        FailureCluster cluster = new FailureCluster();
+        Object id = document.get("_id");
+        cluster.setSignature(id != null ? id.toString() : null);
+        cluster.setMessage(document.getString("message"));
+        cluster.setCount(number(document.get("count")));
+        cluster.setDistinctTests(number(document.get("distinctTests")));
+        cluster.setFirstSeen(ExecutionRepository.toLocalDateTime(document.get("firstSeen")));
+        cluster.setLastSeen(ExecutionRepository.toLocalDateTime(document.get("lastSeen")));
+
+        List<FailureCluster.Example> examples = new ArrayList<>();
+        List<Document> exampleDocuments = document.getList("examples", Document.class);
+        if (exampleDocuments != null) {
+            for (Document example : exampleDocuments) {
+                Object exampleId = example.get("id");
+                examples.add(new FailureCluster.Example(
+                    exampleId instanceof ObjectId ? ((ObjectId) exampleId).toHexString() : String.valueOf(exampleId),
+                    example.getString("testName")));
+            }
+        }
+        cluster.setExamples(examples);
+        return cluster;
+    }
+
+    /**
+     * Execution'ın tam stack trace'i; kayıt yoksa null
+     */
+    public String findStackTrace(String executionId) throws IOException {
+        Object id = ObjectId.isValid(executionId) ? new ObjectId(executionId) : executionId;
+        Document document = details.find(Filters.eq("_id", id)).first();
+        if (document == null) {
+            return null;
+        }
+        Object stackTrace = document.get("stackTrace");
+        if (stackTrace instanceof String) {
+            return (String) stackTrace;
+        }
+        if (!(stackTrace instanceof Binary)) {
+            return null;
+        }
+        byte[] data = ((Binary) stackTrace).getData();
+        if (!"gzip".equals(document.getString("encoding"))) {
+            return new String(data, StandardCharsets.UTF_8);
+        }
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+}
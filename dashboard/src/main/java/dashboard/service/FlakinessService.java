@@ -0,0 +1,194 @@
+package dashboard.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import dashboard.model.TestFlakiness;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test başına son N sonucun geçme/kalma dizisinden kararsızlık (flaky) skoru hesaplar ve test_stats koleksiyonunda tutar.
+ * Execution'lar {@link IncrementalExecutionJob} ile artımlı okunur. Her test dokümanı en fazla window sonuç içerir,
+ * skor yazma anında hesaplanır.
+ * <p>
+ * Skor = yön değiştirme oranı (flips / (n - 1)) x güven (n / MIN_RESULTS, en fazla 1). Sürekli kalan bir test
+ * gerçek hatadır ve skoru 0'dır; geçip kalmayı sık değiştiren test 1'e yaklaşır.
+ */
+public class FlakinessService extends IncrementalExecutionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlakinessService.class);
+
+    public static final String COLLECTION_NAME = "test_stats";
+
+    private static final int MIN_RESULTS = 5;
+
+    private final MongoCollection<Document> stats;
+    private final int window;
+
+    /**
+     * @param window       test başına tutulan son sonuç sayısı
+     * @param backfillDays checkpoint yoksa geçmişin kaç gün geriden başlanarak işleneceği
+     */
+    public FlakinessService(MongoDatabase database, String collectionName, int window, int backfillDays) {
+        super(database, collectionName, "flakiness", backfillDays, List.of("testName", "status", "runId", "timestamp"));
+        this.stats = database.getCollection(COLLECTION_NAME);
+        this.window = Math.max(MIN_RESULTS, window);
+        try {
+            stats.createIndex(Indexes.descending("score"));
+        } catch (Exception e) {
+            logger.warn("test_stats index oluşturulamadı: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    protected void apply(List<Document> batch) {
+        Map<String, List<Document>> pointsByTest = new LinkedHashMap<>();
+        for (Document execution : batch) {
+            String testName = execution.getString("testName");
+            String status = execution.getString("status");
+            // Yalnızca geçti/kaldı sonuçları sayılır; SKIPPED vb. diziyi bozmaz
+            if (testName == null || !("PASSED".equals(status) || "FAILED".equals(status))) {
+                continue;
+            }
+            Object timestamp = execution.get("timestamp");
+            ObjectId id = execution.getObjectId("_id");
+            pointsByTest.computeIfAbsent(testName, key -> new ArrayList<>()).add(new Document("i", id)
+                .append("r", execution.getString("runId"))
+                .append("s", "PASSED".equals(status) ? "P" : "F")
+                .append("t", timestamp instanceof Date ? timestamp : id.getDate()));
+        }
+        if (pointsByTest.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<Document>> histories = new HashMap<>();
+        stats.find(Filters.in("_id", pointsByTest.keySet()))
+            .projection(Projections.include("history"))
+            .forEach(document -> histories.put(document.getString("_id"), document.getList("history", Document.class)));
+
+        List<WriteModel<Document>> writes = new ArrayList<>(pointsByTest.size());
+        Date now = new Date();
+        for (Map.Entry<String, List<Document>> entry : pointsByTest.entrySet()) {
+            // Execution _id'sine göre tekilleştirilir; yarıda kalan bir batch tekrar işlenirse sonuç değişmez
+            Map<ObjectId, Document> merged = new LinkedHashMap<>();
+            List<Document> history = histories.get(entry.getKey());
+            if (history != null) {
+                history.forEach(point -> merged.put(point.getObjectId("i"), point));
+            }
+            entry.getValue().forEach(point -> merged.put(point.getObjectId("i"), point));
+
+            List<Document> points = new ArrayList<>(merged.values());
+            points.sort(Comparator.comparing((Document point) -> point.getDate("t"))
+                .thenComparing(point -> point.getObjectId("i")));
+            if (points.size() > window) {
+                points = new ArrayList<>(points.subList(points.size() - window, points.size()));
+            }
+
+            Document last = points.get(points.size() - 1);
+            Document update = score(points)
+                .append("history", points)
+                .append("lastStatus", "P".equals(last.getString("s")) ? "PASSED" : "FAILED")
+                .append("lastRunId", last.getString("r"))
+                .append("lastSeen", last.getDate("t"))
+                .append("updatedAt", now);
+            writes.add(new UpdateOneModel<>(Filters.eq("_id", entry.getKey()), new Document("$set", update),
+                new UpdateOptions().upsert(true)));
+        }
+        stats.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+    }
+
+    /**
+     * Eskiden yeniye sıralı P/F noktalarından skor alanlarını hesaplar
+     */
+    static Document score(List<Document> points) {
+        int results = points.size();
+        int failures = 0;
+        int flips = 0;
+        int clusters = 0;
+        String previous = null;
+        for (Document point : points) {
+            String status = point.getString("s");
+            if ("F".equals(status)) {
+                failures++;
+                if (!"F".equals(previous)) {
+                    clusters++;
+                }
+            }
+            if (previous != null && !previous.equals(status)) {
+                flips++;
+            }
+            previous = status;
+        }
+        double flipRate = results > 1 ? flips / (double) (results - 1) : 0;
+        double confidence = Math.min(1.0, results / (double) MIN_RESULTS);
+        return new Document("score", round(flipRate * confidence))
+            .append("results", results)
+            .append("failures", failures)
+            .append("flips", flips)
+            .append("flipRate", round(flipRate))
+            .append("failureClusters", clusters)
+            .append("avgClusterLength", clusters > 0 ? round(failures / (double) clusters) : 0.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    /**
+     * Skoru en yüksek testler
+     * @param minResults skor için gereken en az sonuç sayısı
+     */
+    public List<TestFlakiness> findFlaky(int limit, int minResults, double minScore) {
+        List<TestFlakiness> result = new ArrayList<>();
+        stats.find(Filters.and(Filters.gt("score", 0), Filters.gte("score", minScore), Filters.gte("results", minResults)))
+            .sort(Sorts.descending("score"))
+            .limit(limit)
+            .forEach(document -> result.add(toTestFlakiness(document)));
+        return result;
+    }
+
+    static TestFlakiness toTestFlakiness(Document document) {
+        TestFlakiness flakiness = new TestFlakiness();
+        flakiness.setTestName(document.getString("_id"));
+        flakiness.setScore(number(document.get("score")));
+        flakiness.setResults((int) number(document.get("results")));
+        flakiness.setFailures((int) number(document.get("failures")));
+        flakiness.setFlips((int) number(document.get("flips")));
+        flakiness.setFlipRate(number(document.get("flipRate")));
+        flakiness.setFailureClusters((int) number(document.get("failureClusters")));
+        flakiness.setAvgClusterLength(number(document.get("avgClusterLength")));
+        flakiness.setLastStatus(document.getString("lastStatus"));
+        flakiness.setLastRunId(document.getString("lastRunId"));
+        flakiness.setLastSeen(ExecutionRepository.toLocalDateTime(document.get("lastSeen")));
+
+        StringBuilder sequence = new StringBuilder();
+        List<Document> history = document.getList("history", Document.class);
+        if (history != null) {
+            history.forEach(point -> sequence.append(point.getString("s")));
+        }
+        flakiness.setSequence(sequence.toString());
+        return flakiness;
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+}
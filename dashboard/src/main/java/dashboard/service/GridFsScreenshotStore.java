@@ -0,0 +1,65 @@
+package dashboard.service;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.GridFSDownloadStream;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * GridFS'te dosya adı SHA-256 olan görüntüleri okur (plugin.GridFsScreenshotStore yazar).
+ * Eşzamanlı yüklemelerden kalan kopyalar aynı içeriğe sahiptir; ilk yüklenen kullanılır.
+ */
+public class GridFsScreenshotStore implements ScreenshotStore {
+
+    private final GridFSBucket bucket;
+
+    public GridFsScreenshotStore(MongoDatabase database, String bucketName) {
+        this.bucket = GridFSBuckets.create(database, bucketName);
+    }
+
+    @Override
+    public Blob find(String hash) {
+        GridFSFile file = bucket.find(Filters.eq("filename", hash)).sort(Sorts.ascending("uploadDate")).limit(1).first();
+        if (file == null) {
+            return null;
+        }
+        Document metadata = file.getMetadata();
+        String contentType = metadata != null && metadata.getString("contentType") != null
+            ? metadata.getString("contentType") : "application/octet-stream";
+
+        return new Blob() {
+            @Override
+            public long length() {
+                return file.getLength();
+            }
+
+            @Override
+            public String contentType() {
+                return contentType;
+            }
+
+            @Override
+            public InputStream open(long offset) throws IOException {
+                GridFSDownloadStream stream = bucket.openDownloadStream(file.getObjectId());
+                // skip önceki chunk'ları okumadan ilgili chunk'a atlar
+                long remaining = offset;
+                while (remaining > 0) {
+                    long skipped = stream.skip(remaining);
+                    if (skipped <= 0) {
+                        stream.close();
+                        throw new IOException("Offset beyond screenshot length: " + offset);
+                    }
+                    remaining -= skipped;
+                }
+                return stream;
+            }
+        };
+    }
+}
@@ -0,0 +1,176 @@
+package dashboard.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Execution koleksiyonunu analytics_checkpoints'teki konumdan itibaren batch'ler halinde okuyan artımlı analiz işi.
+ * Geçmiş yalnızca ilk çalışmada (backfillDays kadar) taranır; sonraki çalışmalar yalnızca yeni execution'ları okur.
+ * İş zamanlanmış olarak ve change stream'den gelen insert'lerden sonra çalışır; tek dashboard örneği varsayılır.
+ * <p>
+ * _id reporter tarafında atanır ve insert zamanını göstermez: spool'dan saatler sonra gönderilen ya da run sonunda
+ * toplu yazılan sonuçların _id'si checkpoint'in gerisinde kalabilir. Bu yüzden her çalışma önce henüz işaretlenmemiş
+ * execution'lara sunucu saatiyle ($$NOW) ingestedAt yazar ve sıralamayı (ingestedAt, _id) üzerinden yapar.
+ * İşaretleme ve okuma işler arasında sıralı yapılır; böylece sonradan verilen bir ingestedAt checkpoint'in
+ * gerisinde kalmaz.
+ */
+public abstract class IncrementalExecutionJob implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalExecutionJob.class);
+
+    /** Execution'ın dashboard tarafından ilk görüldüğü sunucu zamanı */
+    public static final String INGESTED_AT = "ingestedAt";
+
+    private static final int BATCH_SIZE = 5000;
+    /** Art arda gelen insert'ler tek bir ek çalışmada toplanır */
+    private static final long TRIGGER_DELAY_MILLIS = 30_000;
+    /** İşaretleme ve okuma tüm işler için sıralıdır */
+    private static final Object INGEST_LOCK = new Object();
+
+    protected final MongoCollection<Document> executions;
+    private final AnalyticsCheckpoints checkpoints;
+    private final String jobName;
+    private final int backfillDays;
+    private final List<String> fields;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean runRequested = new AtomicBoolean();
+
+    /**
+     * @param fields execution'lardan okunacak alanlar (_id her zaman gelir)
+     */
+    protected IncrementalExecutionJob(MongoDatabase database, String collectionName, String jobName, int backfillDays,
+                                      List<String> fields) {
+        this.executions = database.getCollection(collectionName);
+        this.checkpoints = new AnalyticsCheckpoints(database);
+        this.jobName = jobName;
+        this.backfillDays = Math.max(0, backfillDays);
+        List<String> projected = new ArrayList<>(fields);
+        projected.add(INGESTED_AT);
+        this.fields = List.copyOf(projected);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, jobName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start(long intervalMinutes) {
+        scheduler.scheduleWithFixedDelay(this::runSafely, 1, Math.max(1, intervalMinutes), TimeUnit.MINUTES);
+        logger.info("{} işi başlatıldı - {} dakikada bir", jobName, intervalMinutes);
+    }
+
+    /**
+     * Yeni execution'lar geldiğinde kısa bir gecikmeyle ek bir çalışma planlar
+     */
+    public void attach(ChangeStreamWatcher watcher) {
+        String collectionName = executions.getNamespace().getCollectionName();
+        watcher.addListener(change -> {
+            boolean insert = change != null && change.getOperationType() == OperationType.INSERT
+                && change.getNamespace() != null && collectionName.equals(change.getNamespace().getCollectionName());
+            if (insert && runRequested.compareAndSet(false, true)) {
+                scheduler.schedule(() -> {
+                    runRequested.set(false);
+                    runSafely();
+                }, TRIGGER_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    private void runSafely() {
+        try {
+            runOnce();
+        } catch (Exception e) {
+            logger.error("{} işi başarısız: ", jobName, e);
+        }
+    }
+
+    /**
+     * Checkpoint'ten sonraki execution'ları işler
+     * @return işlenen execution sayısı
+     */
+    public long runOnce() {
+        synchronized (INGEST_LOCK) {
+            ObjectId backfillStart = new ObjectId(new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(backfillDays)));
+            stampIngested(backfillStart);
+
+            AnalyticsCheckpoints.Position position = checkpoints.get(jobName);
+            long processed = 0;
+            List<Document> batch;
+            do {
+                Bson after = position == null
+                    ? Filters.ne(INGESTED_AT, null)
+                    : Filters.or(
+                        Filters.gt(INGESTED_AT, position.getIngestedAt()),
+                        Filters.and(Filters.eq(INGESTED_AT, position.getIngestedAt()), Filters.gt("_id", position.getId())));
+                batch = executions.find(after)
+                    .projection(Projections.include(fields))
+                    .sort(Sorts.ascending(INGESTED_AT, "_id"))
+                    .limit(BATCH_SIZE)
+                    .into(new ArrayList<>());
+                if (batch.isEmpty()) {
+                    break;
+                }
+                apply(batch);
+                position = AnalyticsCheckpoints.Position.of(batch.get(batch.size() - 1));
+                checkpoints.save(jobName, position, batch.size());
+                processed += batch.size();
+            } while (batch.size() == BATCH_SIZE);
+
+            if (processed > 0) {
+                logger.info("{}: {} execution işlendi.", jobName, processed);
+            }
+            return processed;
+        }
+    }
+
+    /**
+     * ingestedAt'i olmayan execution'lara sunucu saatini yazar; backfill penceresinden eski dokümanlara dokunulmaz
+     */
+    private void stampIngested(ObjectId backfillStart) {
+        long stamped = stampIngested(executions, Filters.gt("_id", backfillStart));
+        if (stamped > 0) {
+            logger.debug("{}: {} execution'a ingestedAt yazıldı.", jobName, stamped);
+        }
+    }
+
+    /**
+     * Filtreye uyan ve ingestedAt'i olmayan execution'lara sunucu saatini yazar. İşlerin okumasıyla aynı kilit
+     * altında çalışır; dışarıdan verilen bir ingestedAt de böylece hiçbir işin checkpoint'inin gerisinde kalmaz.
+     * @return işaretlenen execution sayısı
+     */
+    static long stampIngested(MongoCollection<Document> executions, Bson filter) {
+        synchronized (INGEST_LOCK) {
+            return executions.updateMany(
+                Filters.and(Filters.eq(INGESTED_AT, null), filter),
+                List.of(new Document("$set", new Document(INGESTED_AT, "$$NOW")))).getModifiedCount();
+        }
+    }
+
+    /**
+     * (ingestedAt, _id) sırasıyla okunmuş bir batch'i işler; checkpoint bu metot başarıyla dönünce ilerler.
+     * Çökme sonrası aynı batch tekrar gelebilir; uygulama idempotent olmalıdır.
+     */
+    protected abstract void apply(List<Document> batch);
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,224 @@
+package dashboard.service;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execution koleksiyonunun index şemasının sahibi. Index'ler dashboard açılışında veya
+ * {@link #main(String[])} ile bir kez oluşturulur; test process'leri index oluşturmaz.
+ * <ul>
+ *   <li>runId_1_status_1_timestamp_-1: run detayı ve run içinde durum filtresi</li>
+ *   <li>runId_1_testName_1__id_1: iki run'ı test adına göre sıralı okuyan run karşılaştırması</li>
+ *   <li>testName_1_timestamp_-1: bir testin zaman içindeki geçmişi ve senaryo adı öneki araması</li>
+ *   <li>timestamp_-1__id_-1: son execution'lar ve keyset sayfalama</li>
+ *   <li>failures_timestamp_-1: yalnızca FAILED dokümanları içeren partial index</li>
+ *   <li>ingestedAt_1__id_1: artımlı analiz işlerinin işaretleme ve checkpoint sorguları</li>
+ * </ul>
+ */
+public class IndexManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexManager.class);
+
+    /**
+     * Reporter'ın eskiden her JVM'den oluşturduğu, yukarıdaki compound index'lerin öneki olan index'ler.
+     * status_1 hiçbir compound index'in öneki olmadığından (run'sız durum sorgularının tek index'i) listede yoktur.
+     */
+    private static final List<String> REDUNDANT_INDEXES = List.of("testName_1", "timestamp_-1");
+
+    private static final String RETENTION_INDEX = "createdAt_ttl";
+
+    private final MongoDatabase database;
+    private final MongoCollection<Document> collection;
+
+    public IndexManager(MongoDatabase database, String collectionName) {
+        this.database = database;
+        this.collection = database.getCollection(collectionName);
+    }
+
+    public static List<IndexModel> indexModels() {
+        return List.of(
+            new IndexModel(Indexes.compoundIndex(Indexes.ascending("runId", "status"), Indexes.descending("timestamp")),
+                new IndexOptions().name("runId_1_status_1_timestamp_-1")),
+            new IndexModel(Indexes.ascending("runId", "testName", "_id"),
+                new IndexOptions().name("runId_1_testName_1__id_1")),
+            new IndexModel(Indexes.compoundIndex(Indexes.ascending("testName"), Indexes.descending("timestamp")),
+                new IndexOptions().name("testName_1_timestamp_-1")),
+            new IndexModel(Indexes.descending("timestamp", "_id"),
+                new IndexOptions().name("timestamp_-1__id_-1")),
+            new IndexModel(Indexes.descending("timestamp"),
+                new IndexOptions().name("failures_timestamp_-1").partialFilterExpression(Filters.eq("status", "FAILED"))),
+            new IndexModel(Indexes.ascending(IncrementalExecutionJob.INGESTED_AT, "_id"),
+                new IndexOptions().name("ingestedAt_1__id_1"))
+        );
+    }
+
+    /**
+     * Eksik index'leri oluşturur; var olanlar için MongoDB bir şey yapmaz
+     */
+    public List<String> ensureIndexes() {
+        List<String> created = collection.createIndexes(indexModels());
+        logger.info("{} koleksiyonu index'leri hazır: {}", collection.getNamespace(), created);
+        return created;
+    }
+
+    /**
+     * createdAt üzerindeki TTL index'ini oluşturur; süre değiştiyse collMod ile günceller.
+     * createdAt alanı olmayan (eski) dokümanlar TTL ile silinmez.
+     */
+    public void ensureRetentionIndex(long expireAfterSeconds) {
+        Document existing = null;
+        for (Document index : collection.listIndexes()) {
+            if (RETENTION_INDEX.equals(index.getString("name"))) {
+                existing = index;
+            }
+        }
+
+        if (existing == null) {
+            collection.createIndex(Indexes.ascending("createdAt"),
+                new IndexOptions().name(RETENTION_INDEX).expireAfter(expireAfterSeconds, TimeUnit.SECONDS));
+            logger.info("TTL index oluşturuldu: {} saniye", expireAfterSeconds);
+        } else if (!(existing.get("expireAfterSeconds") instanceof Number)
+                || ((Number) existing.get("expireAfterSeconds")).longValue() != expireAfterSeconds) {
+            database.runCommand(new Document("collMod", collection.getNamespace().getCollectionName())
+                .append("index", new Document("name", RETENTION_INDEX).append("expireAfterSeconds", expireAfterSeconds)));
+            logger.info("TTL index süresi güncellendi: {} saniye", expireAfterSeconds);
+        }
+    }
+
+    /**
+     * Compound index'lerin öneki olan eski tek alanlı index'leri kaldırır
+     */
+    public List<String> dropRedundantIndexes() {
+        List<String> existing = new ArrayList<>();
+        collection.listIndexes().forEach(index -> existing.add(index.getString("name")));
+
+        List<String> dropped = new ArrayList<>();
+        for (String name : REDUNDANT_INDEXES) {
+            if (existing.contains(name)) {
+                collection.dropIndex(name);
+                dropped.add(name);
+            }
+        }
+        if (!dropped.isEmpty()) {
+            logger.info("Gereksiz index'ler kaldırıldı: {}", dropped);
+        }
+        return dropped;
+    }
+
+    /**
+     * Dashboard'un tipik sorgularını explain() ile çalıştırır ve kazanan planın kullandığı index'i döndürür.
+     * Değer "COLLSCAN" ise sorgu index kullanmıyordur.
+     */
+    public Map<String, String> verify() {
+        Map<String, String> plans = new LinkedHashMap<>();
+        plans.put("run detail", winningIndex(collection
+            .find(Filters.and(Filters.eq("runId", "explain"), Filters.eq("status", "FAILED")))
+            .sort(Sorts.descending("timestamp"))));
+        plans.put("run diff", winningIndex(collection
+            .find(Filters.eq("runId", "explain"))
+            .sort(Sorts.ascending("testName", "_id"))));
+        plans.put("test history", winningIndex(collection
+            .find(Filters.eq("testName", "explain"))
+            .sort(Sorts.descending("timestamp"))));
+        plans.put("latest executions", winningIndex(collection
+            .find()
+            .sort(Sorts.descending("timestamp"))
+            .limit(10)));
+        plans.put("keyset page", winningIndex(collection
+            .find()
+            .sort(Sorts.descending("timestamp", "_id"))
+            .limit(100)));
+        plans.put("recent failures", winningIndex(collection
+            .find(Filters.eq("status", "FAILED"))
+            .sort(Sorts.descending("timestamp"))
+            .limit(100)));
+        return plans;
+    }
+
+    private static String winningIndex(FindIterable<Document> query) {
+        Document explain = query.explain();
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        Document winningPlan = queryPlanner != null ? queryPlanner.get("winningPlan", Document.class) : null;
+        if (winningPlan == null) {
+            return "UNKNOWN";
+        }
+        // 7.0+ SBE planlarında gerçek plan queryPlan altında
+        if (winningPlan.get("queryPlan") instanceof Document) {
+            winningPlan = winningPlan.get("queryPlan", Document.class);
+        }
+        return planIndex(winningPlan);
+    }
+
+    private static String planIndex(Document stage) {
+        if ("IXSCAN".equals(stage.getString("stage"))) {
+            return stage.getString("indexName");
+        }
+        if ("COLLSCAN".equals(stage.getString("stage"))) {
+            return "COLLSCAN";
+        }
+        if (stage.get("inputStage") instanceof Document) {
+            return planIndex(stage.get("inputStage", Document.class));
+        }
+        if (stage.get("inputStages") instanceof List) {
+            for (Object input : stage.getList("inputStages", Object.class)) {
+                if (input instanceof Document) {
+                    String index = planIndex((Document) input);
+                    if (!"UNKNOWN".equals(index)) {
+                        return index;
+                    }
+                }
+            }
+        }
+        return "UNKNOWN";
+    }
+
+    /**
+     * Index'leri oluşturur ve planları yazdırır.
+     * Kullanım: IndexManager &lt;mongoUri&gt; &lt;database&gt; &lt;collection&gt; [--drop-redundant] [--verify-only]
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: java -cp dashboard.jar dashboard.service.IndexManager <mongoUri> <database> <collection> " +
+                "[--drop-redundant] [--verify-only]");
+            System.exit(1);
+        }
+        List<String> options = List.of(args).subList(3, args.length);
+
+        try (MongoClient client = MongoClients.create(args[0])) {
+            IndexManager indexManager = new IndexManager(client.getDatabase(args[1]), args[2]);
+            if (!options.contains("--verify-only")) {
+                indexManager.ensureIndexes();
+                if (options.contains("--drop-redundant")) {
+                    indexManager.dropRedundantIndexes();
+                }
+            }
+
+            boolean collectionScan = false;
+            for (Map.Entry<String, String> plan : indexManager.verify().entrySet()) {
+                System.out.println(String.format("%-18s -> %s", plan.getKey(), plan.getValue()));
+                collectionScan |= "COLLSCAN".equals(plan.getValue());
+            }
+            if (collectionScan) {
+                System.err.println("Some queries do not use an index");
+                System.exit(2);
+            }
+        }
+    }
+}
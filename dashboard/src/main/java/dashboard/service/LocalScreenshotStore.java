@@ -0,0 +1,71 @@
+package dashboard.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * plugin.LocalScreenshotStore'un &lt;ilk 2 karakter&gt;/&lt;sha256&gt; düzeninde yazdığı klasörü okur.
+ * Dosyada içerik tipi tutulmadığı için ilk byte'lardan belirlenir.
+ */
+public class LocalScreenshotStore implements ScreenshotStore {
+
+    private final Path root;
+
+    public LocalScreenshotStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public Blob find(String hash) {
+        Path file = root.resolve(hash.substring(0, 2)).resolve(hash);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        long length;
+        String contentType;
+        try {
+            length = Files.size(file);
+            contentType = sniff(file);
+        } catch (IOException e) {
+            return null;
+        }
+
+        return new Blob() {
+            @Override
+            public long length() {
+                return length;
+            }
+
+            @Override
+            public String contentType() {
+                return contentType;
+            }
+
+            @Override
+            public InputStream open(long offset) throws IOException {
+                SeekableByteChannel channel = Files.newByteChannel(file);
+                channel.position(offset);
+                return Channels.newInputStream(channel);
+            }
+        };
+    }
+
+    private static String sniff(Path file) throws IOException {
+        byte[] header = new byte[4];
+        int read;
+        try (InputStream input = Files.newInputStream(file)) {
+            read = input.readNBytes(header, 0, header.length);
+        }
+        if (read >= 4 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G') {
+            return "image/png";
+        }
+        if (read >= 2 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8) {
+            return "image/jpeg";
+        }
+        return "application/octet-stream";
+    }
+}
@@ -0,0 +1,266 @@
+package dashboard.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import dashboard.util.DurationHistogram;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Execution'ların sıcak tutulma süresini yönetir. Silme işini createdAt üzerindeki TTL index'i yapar;
+ * bu servis TTL'e yaklaşan run'ları önceden bulur, run_summaries'te özeti yoksa execution'lardan üretir,
+ * istenirse ham dokümanları gzip'li NDJSON olarak arşivler ve özeti archived olarak işaretler.
+ * <p>
+ * Servis çalışmadığı sürede TTL yine de siler; run özetleri yazma anında tutulduğu için yalnızca arşiv dosyası kaçırılır.
+ */
+public class RetentionService implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetentionService.class);
+
+    private static final int RUNS_PER_PASS = 100;
+    private static final JsonWriterSettings ARCHIVE_JSON = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
+    private final MongoCollection<Document> executions;
+    private final MongoCollection<Document> summaries;
+    private final long hotMillis;
+    private final long leadMillis;
+    private final Path archiveDir;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param hotDays    execution'ların tutulduğu gün sayısı (TTL)
+     * @param leadHours  TTL'den kaç saat önce run'ın arşivlenmeye başlanacağı
+     * @param archiveDir arşiv klasörü; null ise yalnızca özet tutulur
+     */
+    public RetentionService(MongoDatabase database, String collectionName, int hotDays, int leadHours, Path archiveDir) {
+        this.executions = database.getCollection(collectionName);
+        this.summaries = database.getCollection(RunSummaryService.collectionName());
+        this.hotMillis = TimeUnit.DAYS.toMillis(hotDays);
+        // Önden çalışma payı sıcak sürenin yarısını geçmez
+        this.leadMillis = Math.min(TimeUnit.HOURS.toMillis(leadHours), hotMillis / 2);
+        this.archiveDir = archiveDir;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start(long intervalMinutes) {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                runOnce();
+            } catch (Exception e) {
+                logger.error("Retention işi başarısız: ", e);
+            }
+        }, 1, Math.max(1, intervalMinutes), TimeUnit.MINUTES);
+        logger.info("RetentionService başlatıldı - sıcak süre {} gün, arşiv: {}",
+            TimeUnit.MILLISECONDS.toDays(hotMillis), archiveDir != null ? archiveDir : "kapalı");
+    }
+
+    /**
+     * TTL'e yaklaşan ve henüz arşivlenmemiş run'ları işler
+     * @return işlenen run sayısı
+     */
+    public int runOnce() {
+        Date cutoff = new Date(System.currentTimeMillis() - hotMillis + leadMillis);
+        int processed = 0;
+        // Bu çalışmada arşivlenemeyen run'lar sonraki sorgulardan çıkarılır; aksi halde aynı run'lar tekrar tekrar gelir
+        List<String> failed = new ArrayList<>();
+        List<Document> runs;
+        do {
+            runs = expiringRuns(cutoff, failed);
+            for (Document run : runs) {
+                String runId = run.getString("_id");
+                if (retire(runId, run.getDate("firstCreatedAt"))) {
+                    processed++;
+                } else {
+                    failed.add(runId);
+                }
+            }
+        } while (runs.size() == RUNS_PER_PASS);
+
+        if (processed > 0) {
+            logger.info("Retention: {} run arşivlendi.", processed);
+        }
+        if (!failed.isEmpty()) {
+            logger.warn("Retention: {} run arşivlenemedi, bir sonraki çalışmada tekrar denenecek.", failed.size());
+        }
+        return processed;
+    }
+
+    /**
+     * İlk execution'ı cutoff'tan eski olan ve özeti archived olarak işaretlenmemiş run'lar
+     * @param exclude bu çalışmada başarısız olmuş run id'leri
+     */
+    private List<Document> expiringRuns(Date cutoff, List<String> exclude) {
+        return executions.aggregate(List.of(
+            Aggregates.match(Filters.and(Filters.lt("createdAt", cutoff), Filters.type("runId", BsonType.STRING))),
+            Aggregates.group("$runId", Accumulators.min("firstCreatedAt", "$createdAt")),
+            Aggregates.match(Filters.nin("_id", exclude)),
+            Aggregates.lookup(summaries.getNamespace().getCollectionName(), "_id", "_id", "summary"),
+            Aggregates.match(Filters.ne("summary.archived", true)),
+            Aggregates.project(Projections.include("firstCreatedAt")),
+            Aggregates.limit(RUNS_PER_PASS)
+        )).into(new ArrayList<>());
+    }
+
+    /**
+     * @return run arşivlendi ve işaretlendiyse true
+     */
+    private boolean retire(String runId, Date firstCreatedAt) {
+        boolean hasSummary = summaries.find(Filters.eq("_id", runId)).projection(Projections.include("_id")).first() != null;
+        RunRollup rollup = new RunRollup();
+        String archiveFile = null;
+
+        if (archiveDir != null) {
+            try {
+                archiveFile = archive(runId, firstCreatedAt, rollup).toString();
+            } catch (IOException e) {
+                // Arşivlenemeyen run işaretlenmez; bir sonraki çalışmada tekrar denenir
+                logger.error("Run arşivlenemedi: {}", runId, e);
+                return false;
+            }
+        } else if (!hasSummary) {
+            try (MongoCursor<Document> cursor = runCursor(runId)) {
+                cursor.forEachRemaining(rollup::add);
+            }
+        }
+
+        List<Bson> updates = new ArrayList<>();
+        if (!hasSummary) {
+            // Özet yazma anında tutulmamışsa (eski veri) execution'lardan üretilen değerler yazılır
+            updates.addAll(rollup.toSetOnInsert());
+        }
+        updates.add(Updates.set("archived", true));
+        updates.add(Updates.set("archivedAt", new Date()));
+        if (archiveFile != null) {
+            updates.add(Updates.set("archiveFile", archiveFile));
+        }
+        summaries.updateOne(Filters.eq("_id", runId), Updates.combine(updates), new UpdateOptions().upsert(true));
+        return true;
+    }
+
+    private Path archive(String runId, Date firstCreatedAt, RunRollup rollup) throws IOException {
+        String month = new SimpleDateFormat("yyyy-MM").format(firstCreatedAt);
+        Path directory = archiveDir.resolve(month);
+        Files.createDirectories(directory);
+        Path target = directory.resolve(runId.replaceAll("[^A-Za-z0-9._-]", "_") + ".ndjson.gz");
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+        try (MongoCursor<Document> cursor = runCursor(runId);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                 new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                rollup.add(document);
+                writer.write(document.toJson(ARCHIVE_JSON));
+                writer.newLine();
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    private MongoCursor<Document> runCursor(String runId) {
+        return executions.find(Filters.eq("runId", runId))
+            .sort(Sorts.ascending("timestamp"))
+            .batchSize(500)
+            .cursor();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Execution'lardan run_summaries dokümanının alanlarını üretir (plugin.RunSummaryUpdater ile aynı şema)
+     */
+    private static final class RunRollup {
+        private long total;
+        private long totalDuration;
+        private long maxDuration;
+        private long minDuration = Long.MAX_VALUE;
+        private Object startTime;
+        private Object endTime;
+        private String host;
+        private String framework;
+        private final Map<String, Long> counts = new TreeMap<>();
+        private final Map<String, Long> histogram = new TreeMap<>();
+
+        void add(Document document) {
+            total++;
+            Object durationValue = document.get("duration");
+            long duration = durationValue instanceof Number ? ((Number) durationValue).longValue() : 0L;
+            totalDuration += duration;
+            maxDuration = Math.max(maxDuration, duration);
+            minDuration = Math.min(minDuration, duration);
+            histogram.merge(String.valueOf(DurationHistogram.bucketOf(duration)), 1L, Long::sum);
+
+            String status = document.getString("status");
+            counts.merge(status != null ? status.replace('.', '_').replace('$', '_') : "UNKNOWN", 1L, Long::sum);
+
+            // Execution'lar timestamp sırasıyla okunur
+            Object timestamp = document.get("timestamp");
+            if (timestamp != null) {
+                if (startTime == null) startTime = timestamp;
+                endTime = timestamp;
+            }
+            if (host == null) {
+                Document systemInfo = document.get("systemInfo", Document.class);
+                host = systemInfo != null ? systemInfo.getString("hostname") : null;
+            }
+            if (framework == null) {
+                framework = document.getString("framework");
+            }
+        }
+
+        List<Bson> toSetOnInsert() {
+            List<Bson> updates = new ArrayList<>();
+            updates.add(Updates.setOnInsert("total", total));
+            updates.add(Updates.setOnInsert("totalDuration", totalDuration));
+            updates.add(Updates.setOnInsert("maxDuration", maxDuration));
+            updates.add(Updates.setOnInsert("minDuration", total > 0 ? minDuration : 0L));
+            updates.add(Updates.setOnInsert("counts", new Document(new TreeMap<String, Object>(counts))));
+            updates.add(Updates.setOnInsert("durationHistogram", new Document(new TreeMap<String, Object>(histogram))));
+            if (startTime != null) updates.add(Updates.setOnInsert("startTime", startTime));
+            if (endTime != null) updates.add(Updates.setOnInsert("endTime", endTime));
+            if (host != null) updates.add(Updates.setOnInsert("host", host));
+            updates.add(Updates.setOnInsert("framework", framework != null ? framework : "cucumber"));
+            updates.add(Updates.setOnInsert("updatedAt", new Date()));
+            return updates;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package dashboard.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import dashboard.model.RunDiff;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * İki run'ı testName'e göre sıralı iki cursor üzerinden tek geçişte (merge-join) karşılaştırır.
+ * Bellekte yalnızca o anki test ve limit kadar sonuç tutulur; 20k senaryoluk run'lar için de sabit bellek kullanır.
+ * <p>
+ * runId_1_testName_1__id_1 index'i sıralamayı karşılar. Bir test run içinde birden fazla kez koştuysa (retry)
+ * _id'si en büyük, yani en son yazılan sonucu sayılır.
+ */
+public class RunDiffService {
+
+    private static final int BATCH_SIZE = 2000;
+
+    /** MongoDB stringleri UTF-8 bayt sırasıyla sıralar; bu da kod noktası sırasına eşittir */
+    static final Comparator<String> MONGO_STRING_ORDER = (left, right) -> {
+        int i = 0;
+        int j = 0;
+        while (i < left.length() && j < right.length()) {
+            int a = left.codePointAt(i);
+            int b = right.codePointAt(j);
+            if (a != b) {
+                return Integer.compare(a, b);
+            }
+            i += Character.charCount(a);
+            j += Character.charCount(b);
+        }
+        return Boolean.compare(i < left.length(), j < right.length());
+    };
+
+    private final MongoCollection<Document> executions;
+
+    public RunDiffService(MongoDatabase database, String collectionName) {
+        this.executions = database.getCollection(collectionName);
+    }
+
+    /**
+     * @param limit kategori başına döndürülecek en fazla test
+     * @param top   süresi en çok değişen kaç testin döndürüleceği
+     */
+    public RunDiff diff(String baseRunId, String headRunId, int limit, int top) {
+        RunDiff diff = new RunDiff();
+        diff.setBaseRunId(baseRunId);
+        diff.setHeadRunId(headRunId);
+        PriorityQueue<RunDiff.Entry> slower = new PriorityQueue<>(Comparator.comparingLong(RunDiff.Entry::getDurationDelta));
+        PriorityQueue<RunDiff.Entry> faster = new PriorityQueue<>(
+            Comparator.comparingLong((RunDiff.Entry entry) -> entry.getDurationDelta()).reversed());
+
+        try (MongoCursor<Document> baseCursor = open(baseRunId); MongoCursor<Document> headCursor = open(headRunId)) {
+            TestResults base = new TestResults(baseCursor);
+            TestResults head = new TestResults(headCursor);
+            Result left = base.next();
+            Result right = head.next();
+            while (left != null || right != null) {
+                int order = left == null ? 1 : right == null ? -1 : MONGO_STRING_ORDER.compare(left.testName, right.testName);
+                if (order < 0) {
+                    diff.setRemovedCount(diff.getRemovedCount() + 1);
+                    add(diff, diff.getRemoved(), entry(left, null), limit);
+                    left = base.next();
+                } else if (order > 0) {
+                    diff.setAddedCount(diff.getAddedCount() + 1);
+                    add(diff, diff.getAdded(), entry(null, right), limit);
+                    right = head.next();
+                } else {
+                    compare(diff, left, right, limit, top, slower, faster);
+                    left = base.next();
+                    right = head.next();
+                }
+            }
+            diff.setBaseTests(base.count);
+            diff.setHeadTests(head.count);
+        }
+
+        diff.setSlower(drain(slower, Comparator.comparingLong(RunDiff.Entry::getDurationDelta).reversed()));
+        diff.setFaster(drain(faster, Comparator.comparingLong(RunDiff.Entry::getDurationDelta)));
+        return diff;
+    }
+
+    private MongoCursor<Document> open(String runId) {
+        return executions.find(Filters.and(Filters.eq("runId", runId), Filters.type("testName", BsonType.STRING)))
+            .projection(Projections.include("testName", "status", "duration"))
+            .sort(Sorts.ascending("testName", "_id"))
+            .batchSize(BATCH_SIZE)
+            .iterator();
+    }
+
+    private static void compare(RunDiff diff, Result base, Result head, int limit, int top,
+                                PriorityQueue<RunDiff.Entry> slower, PriorityQueue<RunDiff.Entry> faster) {
+        RunDiff.Entry entry = entry(base, head);
+        boolean baseFailed = "FAILED".equals(base.status);
+        boolean headFailed = "FAILED".equals(head.status);
+        if (headFailed && baseFailed) {
+            diff.setStillFailingCount(diff.getStillFailingCount() + 1);
+            add(diff, diff.getStillFailing(), entry, limit);
+        } else if (headFailed) {
+            diff.setNewlyFailingCount(diff.getNewlyFailingCount() + 1);
+            add(diff, diff.getNewlyFailing(), entry, limit);
+        } else if (baseFailed && "PASSED".equals(head.status)) {
+            diff.setNewlyPassingCount(diff.getNewlyPassingCount() + 1);
+            add(diff, diff.getNewlyPassing(), entry, limit);
+        } else {
+            diff.setUnchanged(diff.getUnchanged() + 1);
+        }
+
+        if (entry.getDurationDelta() == null) {
+            return;
+        }
+        diff.setBaseDuration(diff.getBaseDuration() + base.duration);
+        diff.setHeadDuration(diff.getHeadDuration() + head.duration);
+        // Kuyruk başı en küçük değişim; top dolunca yalnızca daha büyük değişimler girer
+        if (entry.getDurationDelta() > 0) {
+            offer(slower, entry, top);
+        } else if (entry.getDurationDelta() < 0) {
+            offer(faster, entry, top);
+        }
+    }
+
+    private static void add(RunDiff diff, List<RunDiff.Entry> list, RunDiff.Entry entry, int limit) {
+        if (list.size() < limit) {
+            list.add(entry);
+        } else {
+            diff.setTruncated(true);
+        }
+    }
+
+    private static void offer(PriorityQueue<RunDiff.Entry> queue, RunDiff.Entry entry, int top) {
+        queue.add(entry);
+        if (queue.size() > top) {
+            queue.poll();
+        }
+    }
+
+    private static List<RunDiff.Entry> drain(PriorityQueue<RunDiff.Entry> queue, Comparator<RunDiff.Entry> order) {
+        List<RunDiff.Entry> result = new ArrayList<>(queue);
+        result.sort(order);
+        return result;
+    }
+
+    private static RunDiff.Entry entry(Result base, Result head) {
+        return new RunDiff.Entry(base != null ? base.testName : head.testName,
+            base != null ? base.status : null, head != null ? head.status : null,
+            base != null ? base.duration : null, head != null ? head.duration : null,
+            base != null ? base.id : null, head != null ? head.id : null);
+    }
+
+    /**
+     * Bir testin run'daki son sonucu
+     */
+    private static final class Result {
+        private final String testName;
+        private final String status;
+        private final Long duration;
+        private final String id;
+
+        private Result(Document document) {
+            this.testName = document.getString("testName");
+            this.status = document.getString("status");
+            Object duration = document.get("duration");
+            this.duration = duration instanceof Number ? ((Number) duration).longValue() : null;
+            Object id = document.get("_id");
+            this.id = id instanceof ObjectId ? ((ObjectId) id).toHexString() : String.valueOf(id);
+        }
+    }
+
+    /**
+     * testName'e göre sıralı cursor'dan aynı adlı ardışık dokümanları tek sonuca indirir
+     */
+    private static final class TestResults {
+        private final MongoCursor<Document> cursor;
+        private Document pending;
+        private int count;
+
+        private TestResults(MongoCursor<Document> cursor) {
+            this.cursor = cursor;
+            this.pending = cursor.hasNext() ? cursor.next() : null;
+        }
+
+        private Result next() {
+            if (pending == null) {
+                return null;
+            }
+            Document last = pending;
+            pending = null;
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                if (!last.getString("testName").equals(document.getString("testName"))) {
+                    pending = document;
+                    break;
+                }
+                last = document;
+            }
+            count++;
+            return new Result(last);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package dashboard.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import dashboard.util.LocalDateTimeAdapter;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Devam eden run'lara abone olan SSE istemcilerine yeni execution'ları iletir.
+ * Change stream aktifse insert/replace olayları doğrudan yayınlanır; değilse (standalone mongod, bağlantı kesintisi)
+ * yalnızca abonesi olan run'lar kısa aralıklarla sorgulanır.
+ * <p>
+ * Yoklama _id'ye dayanmaz: _id reporter tarafında atanır (senaryo sonunda, run sonunda toplu yazımda ya da
+ * spool'dan saatler sonra gönderilirken) ve insert zamanını göstermez. Her yoklama run'ın henüz işaretlenmemiş
+ * execution'larına sunucu saatiyle ingestedAt yazar ve (ingestedAt, _id) sırasında kaldığı yerden okur.
+ * <p>
+ * Her SSE bağlantısı bir Jetty thread'i tutar; eşzamanlı abone sayısı maxSubscribers ile sınırlanır.
+ */
+public class RunEventHub implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunEventHub.class);
+
+    private static final int QUEUE_CAPACITY = 1000;
+    /** Bir run'ın ilk yoklaması bu kadar önce alınmış execution'ları da gönderir */
+    private static final long POLL_LOOKBACK_MILLIS = 30_000;
+
+    private static final Gson gson = new GsonBuilder()
+        .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+        .create();
+
+    private final MongoCollection<Document> executions;
+    private final int maxSubscribers;
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, AnalyticsCheckpoints.Position> pollPositions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ScheduledExecutorService poller;
+    private volatile ChangeStreamWatcher watcher;
+
+    public RunEventHub(MongoCollection<Document> executions, int maxSubscribers) {
+        this.executions = executions;
+        this.maxSubscribers = maxSubscribers;
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "run-event-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Change stream olaylarını dinler; watcher aktif olmadığı sürece yoklama devreye girer
+     */
+    public void attach(ChangeStreamWatcher watcher) {
+        this.watcher = watcher;
+        watcher.addListener(this::onChange);
+    }
+
+    public void start(long pollIntervalMillis) {
+        poller.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (Exception e) {
+                logger.warn("Run olayları yoklanamadı: {}", e.getMessage());
+            }
+        }, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return abonelik; abone sınırına ulaşıldıysa null
+     */
+    public Subscription subscribe(String runId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        Subscription subscription = new Subscription(runId);
+        // Ekleme ve unsubscribe'daki boş kümenin silinmesi aynı anahtar kilidi altında yapılır; aksi halde abonelik
+        // haritadan yeni çıkarılmış bir kümeye eklenip hiç olay almayabilir
+        subscriptions.compute(runId, (key, set) -> {
+            Set<Subscription> current = set != null ? set : new CopyOnWriteArraySet<>();
+            current.add(subscription);
+            return current;
+        });
+        return subscription;
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.runId, (runId, set) -> {
+            set.remove(subscription);
+            if (!set.isEmpty()) {
+                return set;
+            }
+            pollPositions.remove(runId);
+            return null;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    void onChange(ChangeStreamDocument<Document> change) {
+        if (change == null) {
+            // Change stream kesildi; aradaki olaylar bilinmediği için istemciler run'ı yeniden yükler
+            subscriptions.values().forEach(set -> set.forEach(subscription -> subscription.overflowed.set(true)));
+            return;
+        }
+        if (change.getNamespace() == null
+                || !executions.getNamespace().getCollectionName().equals(change.getNamespace().getCollectionName())) {
+            return;
+        }
+        OperationType type = change.getOperationType();
+        Document document = change.getFullDocument();
+        if ((type == OperationType.INSERT || type == OperationType.REPLACE) && document != null) {
+            publish(document);
+        }
+    }
+
+    private void poll() {
+        ChangeStreamWatcher current = watcher;
+        if (subscriptions.isEmpty() || (current != null && current.isActive())) {
+            pollPositions.clear();
+            return;
+        }
+
+        for (String runId : subscriptions.keySet()) {
+            IncrementalExecutionJob.stampIngested(executions, Filters.eq("runId", runId));
+            // İlk yoklamada yakın zamanda alınanlar da gönderilir; istemci zaten yüklediklerini id ile ayıklar
+            AnalyticsCheckpoints.Position position = pollPositions.get(runId);
+            Bson after = position == null
+                ? Filters.gte(IncrementalExecutionJob.INGESTED_AT, new Date(System.currentTimeMillis() - POLL_LOOKBACK_MILLIS))
+                : Filters.or(
+                    Filters.gt(IncrementalExecutionJob.INGESTED_AT, position.getIngestedAt()),
+                    Filters.and(Filters.eq(IncrementalExecutionJob.INGESTED_AT, position.getIngestedAt()),
+                        Filters.gt("_id", position.getId())));
+            AnalyticsCheckpoints.Position last = position;
+            for (Document document : executions.find(Filters.and(Filters.eq("runId", runId), after))
+                    .sort(Sorts.ascending(IncrementalExecutionJob.INGESTED_AT, "_id"))) {
+                publish(document);
+                last = AnalyticsCheckpoints.Position.of(document);
+            }
+            if (last != null && subscriptions.containsKey(runId)) {
+                pollPositions.put(runId, last);
+            }
+        }
+    }
+
+    private void publish(Document document) {
+        Object runId = document.get("runId");
+        Set<Subscription> subscribers = runId instanceof String ? subscriptions.get(runId) : null;
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        String payload = "id: " + document.get("_id") + "\nevent: execution\ndata: " +
+            gson.toJson(ExecutionRepository.toExecution(document)) + "\n\n";
+        for (Subscription subscription : subscribers) {
+            subscription.offer(payload);
+        }
+    }
+
+    @Override
+    public void close() {
+        poller.shutdownNow();
+    }
+
+    /**
+     * Tek bir SSE bağlantısının olay kuyruğu. İstemci yetişemezse olaylar atılır ve bir "reset" olayı gönderilir;
+     * istemci bu durumda run'ı baştan yükler.
+     */
+    public final class Subscription implements AutoCloseable {
+        private final String runId;
+        private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final AtomicBoolean overflowed = new AtomicBoolean();
+
+        private Subscription(String runId) {
+            this.runId = runId;
+        }
+
+        private void offer(String payload) {
+            if (!queue.offer(payload)) {
+                overflowed.set(true);
+            }
+        }
+
+        /**
+         * Sıradaki SSE olayını döndürür; timeout içinde olay yoksa null
+         */
+        public String next(long timeout, TimeUnit unit) throws InterruptedException {
+            if (overflowed.compareAndSet(true, false)) {
+                queue.clear();
+                return "event: reset\ndata: {}\n\n";
+            }
+            return queue.poll(timeout, unit);
+        }
+
+        @Override
+        public void close() {
+            unsubscribe(this);
+        }
+    }
+}
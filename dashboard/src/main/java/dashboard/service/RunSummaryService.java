@@ -0,0 +1,161 @@
+package dashboard.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Sorts;
+import dashboard.model.RunShard;
+import dashboard.model.RunSummary;
+import dashboard.util.DurationHistogram;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reporter'ın yazma anında güncellediği run_summaries koleksiyonunu okur.
+ * Run listesi ve özet kartları execution sayısından bağımsız olarak run başına tek küçük dokümanla doldurulur.
+ * Birden fazla agent'a bölünmüş run'ların shard sayaçları run_shards'tan (_id = runId#shardId) okunur.
+ */
+public class RunSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunSummaryService.class);
+
+    public static final String DEFAULT_COLLECTION_NAME = "run_summaries";
+    public static final String DEFAULT_SHARDS_COLLECTION_NAME = "run_shards";
+
+    private final MongoCollection<Document> summaries;
+    private final MongoCollection<Document> shards;
+
+    public RunSummaryService(MongoDatabase database) {
+        this.summaries = database.getCollection(collectionName());
+        this.shards = database.getCollection(shardsCollectionName());
+        try {
+            summaries.createIndex(Indexes.descending("endTime"));
+        } catch (Exception e) {
+            logger.warn("run_summaries index oluşturulamadı: {}", e.getMessage());
+        }
+    }
+
+    public MongoCollection<Document> getCollection() {
+        return summaries;
+    }
+
+    /**
+     * Özet koleksiyonunun adı; reporter ile aynı ayardan okunur (REPORT_SUMMARY_COLLECTION / report.summary.collection)
+     */
+    public static String collectionName() {
+        return setting("REPORT_SUMMARY_COLLECTION", "report.summary.collection", DEFAULT_COLLECTION_NAME);
+    }
+
+    /**
+     * Shard koleksiyonunun adı; reporter ile aynı ayardan okunur (REPORT_SHARD_COLLECTION / report.shard.collection)
+     */
+    public static String shardsCollectionName() {
+        return setting("REPORT_SHARD_COLLECTION", "report.shard.collection", DEFAULT_SHARDS_COLLECTION_NAME);
+    }
+
+    private static String setting(String envName, String propertyName, String defaultValue) {
+        String value = System.getenv(envName);
+        if (value == null || value.trim().isEmpty()) {
+            value = System.getProperty(propertyName);
+        }
+        return (value == null || value.trim().isEmpty()) ? defaultValue : value.trim();
+    }
+
+    /**
+     * Son biten run'ların özetlerini yeniden eskiye döndürür
+     */
+    public List<RunSummary> findRecent(int limit) {
+        List<RunSummary> result = new ArrayList<>();
+        summaries.find()
+            .sort(Sorts.descending("endTime"))
+            .limit(limit)
+            .forEach(document -> result.add(toRunSummary(document)));
+        return result;
+    }
+
+    public RunSummary find(String runId) {
+        Document document = summaries.find(Filters.eq("_id", runId)).first();
+        return document != null ? toRunSummary(document) : null;
+    }
+
+    static RunSummary toRunSummary(Document document) {
+        RunSummary summary = new RunSummary(document.getString("_id"));
+        long total = number(document.get("total"));
+        summary.setTotal(total);
+
+        Map<String, Long> counts = new HashMap<>();
+        Document countsDocument = document.get("counts", Document.class);
+        if (countsDocument != null) {
+            countsDocument.forEach((status, count) -> counts.put(status, number(count)));
+        }
+        summary.setCounts(counts);
+        summary.setPassed(counts.getOrDefault("PASSED", 0L));
+        summary.setFailed(counts.getOrDefault("FAILED", 0L));
+        summary.setSkipped(counts.getOrDefault("SKIPPED", 0L));
+
+        summary.setAvgDuration(total > 0 ? number(document.get("totalDuration")) / total : 0);
+        summary.setMaxDuration(number(document.get("maxDuration")));
+
+        Map<String, Number> histogram = new HashMap<>();
+        Document histogramDocument = document.get("durationHistogram", Document.class);
+        if (histogramDocument != null) {
+            histogramDocument.forEach((bucket, count) -> {
+                if (count instanceof Number) histogram.put(bucket, (Number) count);
+            });
+        }
+        // Kova tahmini gerçek maksimumu aşmasın
+        summary.setP50Duration(Math.min(DurationHistogram.quantile(histogram, 0.50), summary.getMaxDuration()));
+        summary.setP95Duration(Math.min(DurationHistogram.quantile(histogram, 0.95), summary.getMaxDuration()));
+
+        summary.setStartTime(ExecutionRepository.toLocalDateTime(document.get("startTime")));
+        summary.setEndTime(ExecutionRepository.toLocalDateTime(document.get("endTime")));
+        summary.setHost(document.getString("host"));
+        summary.setFramework(document.getString("framework"));
+        summary.setArchived(Boolean.TRUE.equals(document.getBoolean("archived")));
+        summary.setShards((int) number(document.get("shards")));
+        summary.setShardsFinished((int) number(document.get("shardsFinished")));
+        return summary;
+    }
+
+    /**
+     * Run'ın shard'ları shard id sırasıyla; run bölünmemişse boş liste
+     */
+    public List<RunShard> findShards(String runId) {
+        List<RunShard> result = new ArrayList<>();
+        // _id aralığı: "$" karakteri "#"ten hemen sonra gelir, ayrı index gerekmez
+        shards.find(Filters.and(Filters.gte("_id", runId + "#"), Filters.lt("_id", runId + "$")))
+            .sort(Sorts.ascending("_id"))
+            .forEach(document -> result.add(toRunShard(document)));
+        return result;
+    }
+
+    static RunShard toRunShard(Document document) {
+        RunShard shard = new RunShard();
+        shard.setShardId(document.getString("shardId"));
+        shard.setStatus(document.getString("status"));
+        shard.setTotal(number(document.get("total")));
+        Document counts = document.get("counts", Document.class);
+        if (counts != null) {
+            shard.setPassed(number(counts.get("PASSED")));
+            shard.setFailed(number(counts.get("FAILED")));
+            shard.setSkipped(number(counts.get("SKIPPED")));
+        }
+        shard.setTotalDuration(number(document.get("totalDuration")));
+        shard.setHost(document.getString("host"));
+        shard.setStartedAt(ExecutionRepository.toLocalDateTime(document.get("startedAt")));
+        shard.setFinishedAt(ExecutionRepository.toLocalDateTime(document.get("finishedAt")));
+        shard.setUpdatedAt(ExecutionRepository.toLocalDateTime(document.get("updatedAt")));
+        return shard;
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -0,0 +1,202 @@
+package dashboard.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Execution dokümanlarını şema v2'ye taşır: string timestamp BSON Date'e çevrilir, eksik createdAt doldurulur
+ * ve schemaVersion 2 yazılır. run_summaries içindeki string startTime/endTime da Date'e çevrilir.
+ * Güncellemeler unordered bulkWrite ile batch'ler halinde yapılır; araç tekrar çalıştırılabilir.
+ * <p>
+ * Eski "yyyy-MM-dd HH:mm:ss" runId'ler değiştirilmez: aynı saniyede çakışmış run'lar zaten birleşmiştir
+ * ve ayrıştırılamaz. Yeni run'lar plugin.RunIds formatında yazılır.
+ */
+public class SchemaMigration {
+
+    public static final int SCHEMA_VERSION = 2;
+
+    private final MongoCollection<Document> executions;
+    private final MongoCollection<Document> summaries;
+    private final ZoneId zone;
+    private final int batchSize;
+    private final boolean createdAtNow;
+    private final boolean dryRun;
+
+    private long migrated;
+    private long skipped;
+
+    /**
+     * @param zone         reporter'ın string timestamp'leri yazdığı makinenin saat dilimi
+     * @param createdAtNow eksik createdAt için timestamp yerine şu anı yaz; TTL açıksa eski veriler hemen silinmez
+     */
+    public SchemaMigration(MongoDatabase database, String collectionName, ZoneId zone, int batchSize,
+                           boolean createdAtNow, boolean dryRun) {
+        this.executions = database.getCollection(collectionName);
+        this.summaries = database.getCollection(RunSummaryService.collectionName());
+        this.zone = zone;
+        this.batchSize = Math.max(1, batchSize);
+        this.createdAtNow = createdAtNow;
+        this.dryRun = dryRun;
+    }
+
+    public void migrateExecutions() {
+        Date now = new Date();
+        List<WriteModel<Document>> batch = new ArrayList<>(batchSize);
+
+        try (MongoCursor<Document> cursor = executions.find(Filters.ne("schemaVersion", SCHEMA_VERSION))
+                .projection(Projections.include("timestamp", "createdAt"))
+                .sort(Sorts.ascending("_id"))
+                .batchSize(batchSize)
+                .cursor()) {
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                Date timestamp = toDate(document.get("timestamp"));
+                if (timestamp == null) {
+                    skipped++;
+                    System.err.println("[SchemaMigration] Unparseable timestamp, skipped: " +
+                        document.get("_id") + " " + document.get("timestamp"));
+                    continue;
+                }
+
+                List<Bson> updates = new ArrayList<>();
+                updates.add(Updates.set("timestamp", timestamp));
+                if (!(document.get("createdAt") instanceof Date)) {
+                    updates.add(Updates.set("createdAt", createdAtNow ? now : timestamp));
+                }
+                updates.add(Updates.set("schemaVersion", SCHEMA_VERSION));
+                batch.add(new UpdateOneModel<>(Filters.eq("_id", document.get("_id")), Updates.combine(updates)));
+
+                if (batch.size() >= batchSize) {
+                    flush(executions, batch);
+                }
+            }
+        }
+        flush(executions, batch);
+        System.out.println("[SchemaMigration] " + executions.getNamespace() + ": " + migrated + " documents " +
+            (dryRun ? "would be migrated" : "migrated") + ", " + skipped + " skipped");
+    }
+
+    public void migrateSummaries() {
+        long before = migrated;
+        List<WriteModel<Document>> batch = new ArrayList<>(batchSize);
+
+        try (MongoCursor<Document> cursor = summaries.find(Filters.or(
+                    Filters.type("startTime", BsonType.STRING), Filters.type("endTime", BsonType.STRING)))
+                .projection(Projections.include("startTime", "endTime"))
+                .batchSize(batchSize)
+                .cursor()) {
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                List<Bson> updates = new ArrayList<>();
+                Date startTime = toDate(document.get("startTime"));
+                Date endTime = toDate(document.get("endTime"));
+                if (startTime != null) updates.add(Updates.set("startTime", startTime));
+                if (endTime != null) updates.add(Updates.set("endTime", endTime));
+                if (!updates.isEmpty()) {
+                    batch.add(new UpdateOneModel<>(Filters.eq("_id", document.get("_id")), Updates.combine(updates)));
+                }
+                if (batch.size() >= batchSize) {
+                    flush(summaries, batch);
+                }
+            }
+        }
+        flush(summaries, batch);
+        System.out.println("[SchemaMigration] " + summaries.getNamespace() + ": " + (migrated - before) + " summaries " +
+            (dryRun ? "would be migrated" : "migrated"));
+    }
+
+    private void flush(MongoCollection<Document> collection, List<WriteModel<Document>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (!dryRun) {
+            collection.bulkWrite(batch, new BulkWriteOptions().ordered(false));
+        }
+        migrated += batch.size();
+        batch.clear();
+    }
+
+    private Date toDate(Object value) {
+        if (value instanceof Date) {
+            return (Date) value;
+        }
+        if (!(value instanceof String) || ((String) value).isEmpty()) {
+            return null;
+        }
+        String text = (String) value;
+        try {
+            return Date.from(OffsetDateTime.parse(text).toInstant());
+        } catch (DateTimeParseException e) {
+            // offset'siz yerel zaman
+        }
+        try {
+            return Date.from(LocalDateTime.parse(text).atZone(zone).toInstant());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Kullanım: SchemaMigration &lt;mongoUri&gt; &lt;database&gt; &lt;collection&gt;
+     * [--batch-size N] [--zone Europe/Istanbul] [--created-at-now] [--dry-run]
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: java -cp dashboard.jar dashboard.service.SchemaMigration <mongoUri> <database> <collection> " +
+                "[--batch-size N] [--zone Europe/Istanbul] [--created-at-now] [--dry-run]");
+            System.exit(1);
+        }
+
+        int batchSize = 1000;
+        ZoneId zone = ZoneId.systemDefault();
+        boolean createdAtNow = false;
+        boolean dryRun = false;
+        for (int i = 3; i < args.length; i++) {
+            switch (args[i]) {
+                case "--batch-size":
+                    batchSize = Integer.parseInt(args[++i]);
+                    break;
+                case "--zone":
+                    zone = ZoneId.of(args[++i]);
+                    break;
+                case "--created-at-now":
+                    createdAtNow = true;
+                    break;
+                case "--dry-run":
+                    dryRun = true;
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        try (MongoClient client = MongoClients.create(args[0])) {
+            SchemaMigration migration = new SchemaMigration(client.getDatabase(args[1]), args[2], zone, batchSize,
+                createdAtNow, dryRun);
+            migration.migrateExecutions();
+            migration.migrateSummaries();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package dashboard.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.regex.Pattern;
+
+/**
+ * Plugin'in SHA-256 ile içerik adresli sakladığı ekran görüntülerini okuyan depo.
+ * İçerik özetle belirlendiği için bir hash'in gösterdiği byte'lar hiç değişmez.
+ */
+public interface ScreenshotStore {
+
+    Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    /**
+     * @return görüntü, yoksa null
+     */
+    Blob find(String hash);
+
+    static boolean isValidHash(String hash) {
+        return hash != null && HASH.matcher(hash).matches();
+    }
+
+    interface Blob {
+        long length();
+
+        String contentType();
+
+        /**
+         * offset'ten başlayan içerik akışı; çağıran kapatır
+         */
+        InputStream open(long offset) throws IOException;
+    }
+}
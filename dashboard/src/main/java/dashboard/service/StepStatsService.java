@@ -0,0 +1,92 @@
+package dashboard.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import dashboard.model.StepStats;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Execution dokümanlarına gömülü steps dizisinden step definition kalıbı başına süre yüzdeliklerini
+ * MongoDB'de hesaplar. Yüzdelikler sıralanmış süre dizisinden ($sortArray, MongoDB 5.2+) okunur.
+ */
+public class StepStatsService {
+
+    private final MongoCollection<Document> executions;
+
+    public StepStatsService(MongoCollection<Document> executions) {
+        this.executions = executions;
+    }
+
+    /**
+     * p95 süresine göre en yavaş adımlar
+     * @param since bu zamandan sonraki execution'lar (timestamp index'i ile daraltılır)
+     * @param runId verilirse yalnızca bu run
+     */
+    public List<StepStats> findSlowest(Date since, String runId, int limit) {
+        List<Bson> filters = new ArrayList<>();
+        filters.add(Filters.gte("timestamp", since));
+        filters.add(Filters.exists("steps.0"));
+        if (runId != null) {
+            filters.add(Filters.eq("runId", runId));
+        }
+
+        List<Bson> pipeline = List.of(
+            Aggregates.match(Filters.and(filters)),
+            Aggregates.unwind("$steps"),
+            new Document("$group", new Document("_id", "$steps.pattern")
+                .append("durations", new Document("$push", "$steps.duration"))
+                .append("count", new Document("$sum", 1))
+                .append("failed", new Document("$sum",
+                    new Document("$cond", List.of(new Document("$eq", List.of("$steps.status", "FAILED")), 1, 0))))
+                .append("avgDuration", new Document("$avg", "$steps.duration"))
+                .append("maxDuration", new Document("$max", "$steps.duration"))),
+            new Document("$set", new Document("durations",
+                new Document("$sortArray", new Document("input", "$durations").append("sortBy", 1)))),
+            new Document("$project", new Document("count", 1)
+                .append("failed", 1)
+                .append("avgDuration", 1)
+                .append("maxDuration", 1)
+                .append("p50Duration", percentile(0.50))
+                .append("p95Duration", percentile(0.95))
+                .append("p99Duration", percentile(0.99))),
+            Aggregates.sort(new Document("p95Duration", -1)),
+            Aggregates.limit(limit)
+        );
+
+        List<StepStats> result = new ArrayList<>();
+        executions.aggregate(pipeline).allowDiskUse(true).forEach(document -> result.add(toStepStats(document)));
+        return result;
+    }
+
+    /**
+     * Sıralı durations dizisinde nearest-rank yüzdeliği: durations[ceil(q * n) - 1]
+     */
+    private static Document percentile(double q) {
+        Document rank = new Document("$subtract", List.of(
+            new Document("$ceil", new Document("$multiply", List.of(q, new Document("$size", "$durations")))), 1));
+        return new Document("$arrayElemAt", List.of("$durations", new Document("$max", List.of(rank, 0))));
+    }
+
+    private static StepStats toStepStats(Document document) {
+        StepStats stats = new StepStats();
+        stats.setPattern(document.getString("_id"));
+        stats.setCount(number(document.get("count")));
+        stats.setFailed(number(document.get("failed")));
+        stats.setAvgDuration(number(document.get("avgDuration")));
+        stats.setMaxDuration(number(document.get("maxDuration")));
+        stats.setP50Duration(number(document.get("p50Duration")));
+        stats.setP95Duration(number(document.get("p95Duration")));
+        stats.setP99Duration(number(document.get("p99Duration")));
+        return stats;
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number ? Math.round(((Number) value).doubleValue()) : 0L;
+    }
+}
@@ -0,0 +1,264 @@
+package dashboard.service;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * İçerik adresli ekran görüntülerinden küçük JPEG thumbnail'ler üretir ve boyutu sınırlı bir disk cache'inde tutar.
+ * Üretim sınırlı arka plan havuzunda yapılır; aynı hash için eşzamanlı istekler tek üretimi bekler.
+ * Change stream bağlıysa yeni execution'ların görüntüleri sayfa açılmadan önce hazırlanır.
+ * <p>
+ * Cache dosyası adı &lt;hash&gt;-w&lt;genişlik&gt;.jpg'dir; kaynak görüntü değişmediği için dosyalar hiç bayatlamaz.
+ * Sınır aşılınca en uzun süredir kullanılmayan (mtime) dosyalar silinir.
+ */
+public class ThumbnailService implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private static final String URL_PREFIX = "/api/screenshots/";
+
+    private final ScreenshotStore store;
+    private final Path cacheDir;
+    private final int width;
+    private final float quality;
+    private final long maxBytes;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong cachedBytes = new AtomicLong();
+
+    public ThumbnailService(ScreenshotStore store, Path cacheDir, int width, float quality, long maxBytes, int threads)
+            throws IOException {
+        this.store = store;
+        this.cacheDir = cacheDir;
+        this.width = Math.max(16, width);
+        this.quality = Math.max(0f, Math.min(1f, quality));
+        this.maxBytes = maxBytes;
+
+        Files.createDirectories(cacheDir);
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            cachedBytes.set(files.mapToLong(ThumbnailService::sizeOf).sum());
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(256),
+            runnable -> {
+                Thread thread = new Thread(runnable, "thumbnail-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.executor.allowCoreThreadTimeOut(true);
+        logger.info("ThumbnailService hazır - {}px, cache {} ({} MB sınır)", this.width, cacheDir, maxBytes / (1024 * 1024));
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Thumbnail dosyasını döndürür; cache'te yoksa arka planda üretilir. Kaynak görüntü yoksa future null ile tamamlanır.
+     * Havuz kuyruğu doluysa future RejectedExecutionException ile tamamlanır.
+     */
+    public CompletableFuture<Path> thumbnail(String hash) {
+        Path target = cacheDir.resolve(hash + "-w" + width + ".jpg");
+        if (Files.isRegularFile(target)) {
+            touch(target);
+            return CompletableFuture.completedFuture(target);
+        }
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(hash, future);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(generate(hash, target));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(hash, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(hash, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Yeni execution'ların ekran görüntüleri için thumbnail'i önceden üretir
+     */
+    public void onChange(ChangeStreamDocument<Document> change) {
+        if (change == null || change.getOperationType() != OperationType.INSERT || change.getFullDocument() == null) {
+            return;
+        }
+        Object path = change.getFullDocument().get("screenshotPath");
+        if (path instanceof String && ((String) path).startsWith(URL_PREFIX)) {
+            String hash = ((String) path).substring(URL_PREFIX.length());
+            if (ScreenshotStore.isValidHash(hash) && executor.getQueue().remainingCapacity() > 0) {
+                thumbnail(hash).exceptionally(e -> null);
+            }
+        }
+    }
+
+    private Path generate(String hash, Path target) throws IOException {
+        if (Files.isRegularFile(target)) {
+            return target;
+        }
+        ScreenshotStore.Blob blob = store.find(hash);
+        if (blob == null) {
+            return null;
+        }
+
+        BufferedImage source;
+        try (InputStream input = blob.open(0)) {
+            source = ImageIO.read(input);
+        }
+        if (source == null) {
+            throw new IOException("Unsupported screenshot image data: " + hash);
+        }
+
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = (int) Math.max(1, Math.round(source.getHeight() * (targetWidth / (double) source.getWidth())));
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        Path temp = Files.createTempFile(cacheDir, hash, ".tmp");
+        try {
+            writeJpeg(scaled, temp);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        if (cachedBytes.addAndGet(sizeOf(target)) > maxBytes) {
+            evict();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG writer available");
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Cache sınırın %90'ına inene kadar en eski erişilen dosyaları siler
+     */
+    private synchronized void evict() {
+        if (cachedBytes.get() <= maxBytes) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(cacheDir)) {
+            stream.filter(file -> file.getFileName().toString().endsWith(".jpg")).forEach(files::add);
+        } catch (IOException e) {
+            logger.warn("Thumbnail cache okunamadı: {}", e.getMessage());
+            return;
+        }
+        files.sort(Comparator.comparingLong(ThumbnailService::lastModified));
+
+        long total = files.stream().mapToLong(ThumbnailService::sizeOf).sum();
+        long goal = maxBytes * 9 / 10;
+        int removed = 0;
+        for (Path file : files) {
+            if (total <= goal) {
+                break;
+            }
+            long size = sizeOf(file);
+            try {
+                if (Files.deleteIfExists(file)) {
+                    total -= size;
+                    removed++;
+                }
+            } catch (IOException e) {
+                logger.debug("Thumbnail silinemedi: {}", file);
+            }
+        }
+        cachedBytes.set(total);
+        logger.debug("Thumbnail cache: {} dosya silindi, {} byte kaldı", removed, total);
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Erişim zamanı yalnızca temizleme sırası için kullanılır
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
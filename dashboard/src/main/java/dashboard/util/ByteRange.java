@@ -0,0 +1,70 @@
+package dashboard.util;
+
+/**
+ * Tek aralıklı HTTP Range başlığı (bytes=start-end, bytes=start-, bytes=-suffix).
+ * Çok aralıklı istekler desteklenmez; bu durumda tüm içerik döndürülür.
+ */
+public final class ByteRange {
+
+    private final long start;
+    private final long end;
+
+    private ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    /** Dahil son byte */
+    public long getEnd() {
+        return end;
+    }
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * @return aralık; başlık yok, çok aralıklı veya sözdizimi geçersizse null (tüm içerik gönderilir)
+     * @throws IllegalArgumentException aralık içeriğin dışındaysa (416)
+     */
+    public static ByteRange parse(String header, long length) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length <= 0) {
+                    throw new IllegalArgumentException("Unsatisfiable range: " + header);
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                if (start >= length) {
+                    throw new IllegalArgumentException("Unsatisfiable range: " + header);
+                }
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+                if (end < start) {
+                    return null;
+                }
+            }
+            return new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package dashboard.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reporter'ın run_summaries.durationHistogram alanına yazdığı logaritmik kovalardan yüzdelik tahmini yapar.
+ * Kova tanımı plugin.DurationHistogram ile aynı olmalıdır: kova i, (GAMMA^(i-1), GAMMA^i] ms aralığıdır.
+ */
+public final class DurationHistogram {
+
+    public static final double GAMMA = 1.1;
+
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private DurationHistogram() {
+    }
+
+    /**
+     * Süreyi kova indeksine çevirir; plugin.DurationHistogram.bucketOf ile aynı sonucu verir
+     */
+    public static int bucketOf(long durationMillis) {
+        if (durationMillis <= 1) {
+            return 0;
+        }
+        return (int) Math.ceil(Math.log(durationMillis) / LOG_GAMMA);
+    }
+
+    /**
+     * Kova sayaçlarından q (0..1) yüzdeliğini tahmin eder; histogram boşsa 0 döner
+     */
+    public static long quantile(Map<String, ? extends Number> buckets, double q) {
+        if (buckets == null || buckets.isEmpty()) {
+            return 0;
+        }
+
+        TreeMap<Integer, Long> sorted = new TreeMap<>();
+        long total = 0;
+        for (Map.Entry<String, ? extends Number> entry : buckets.entrySet()) {
+            try {
+                long count = entry.getValue().longValue();
+                sorted.merge(Integer.parseInt(entry.getKey()), count, Long::sum);
+                total += count;
+            } catch (NumberFormatException e) {
+                // Tanınmayan kova anahtarı atlanır
+            }
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (Map.Entry<Integer, Long> entry : sorted.entrySet()) {
+            seen += entry.getValue();
+            if (seen >= rank) {
+                return bucketValue(entry.getKey());
+            }
+        }
+        return bucketValue(sorted.lastKey());
+    }
+
+    /**
+     * Kovanın temsili değeri: alt ve üst sınırın göreli orta noktası
+     */
+    private static long bucketValue(int bucket) {
+        if (bucket <= 0) {
+            return 1;
+        }
+        return Math.round(2 * Math.pow(GAMMA, bucket) / (GAMMA + 1));
+    }
+}
@@ -0,0 +1,116 @@
+package dashboard.util;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Boyut sınırlı (LRU) ve süre sınırlı (TTL) basit bellek içi cache.
+ * Yükleme kilit dışında yapılır; aynı anahtar için eşzamanlı iki yükleme olabilir, sonuncusu saklanır.
+ * Yükleme sürerken anahtarı kapsayan bir invalidate gelirse yüklenen değer döndürülür ama saklanmaz; invalidate'ten
+ * önce okunmuş eski veri cache'e geri yazılmaz.
+ */
+public class TtlCache<K, V> {
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Devam eden bir yükleme; yükleme başladıktan sonra anahtarı geçersiz kılınırsa işaretlenir
+     */
+    private static final class Load<K> {
+        final K key;
+        boolean invalidated;
+
+        Load(K key) {
+            this.key = key;
+        }
+    }
+
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final Set<Load<K>> loads = new HashSet<>();
+
+    public TtlCache(int maxSize, long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Geçerli değeri döndürür; yoksa veya süresi dolduysa loader ile yükleyip saklar.
+     * Loader null dönerse değer saklanmaz.
+     */
+    public V get(K key, Function<K, V> loader) {
+        long now = System.currentTimeMillis();
+        Load<K> load = new Load<>(key);
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt > now) {
+                return entry.value;
+            }
+            loads.add(load);
+        }
+
+        V value = null;
+        try {
+            value = loader.apply(key);
+        } finally {
+            synchronized (this) {
+                loads.remove(load);
+                if (value != null && !load.invalidated) {
+                    entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+                }
+            }
+        }
+        return value;
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        invalidateLoads(loadKey -> Objects.equals(loadKey, key));
+    }
+
+    public synchronized void invalidateIf(Predicate<K> predicate) {
+        Iterator<K> iterator = entries.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (predicate.test(iterator.next())) {
+                iterator.remove();
+            }
+        }
+        invalidateLoads(predicate);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        invalidateLoads(loadKey -> true);
+    }
+
+    private void invalidateLoads(Predicate<K> predicate) {
+        for (Load<K> load : loads) {
+            if (predicate.test(load.key)) {
+                load.invalidated = true;
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
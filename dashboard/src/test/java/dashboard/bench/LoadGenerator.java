@@ -0,0 +1,173 @@
+package dashboard.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Çalışan bir dashboard'a sabit eşzamanlılıkla istek gönderip path başına istek/saniye ve gecikme yüzdeliklerini yazar.
+ * Havuz ayarlarının (HTTP_MAX_THREADS, HTTP_QUEUE_CAPACITY, MONGO_MAX_POOL_SIZE) öncesi/sonrası karşılaştırması için kullanılır.
+ * <p>
+ * Kullanım: LoadGenerator &lt;baseUrl&gt; [--paths /api/executions,/dashboard] [--concurrency 64]
+ * [--duration-seconds 30] [--warmup-seconds 5]
+ */
+public class LoadGenerator {
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int concurrency;
+
+    public LoadGenerator(String baseUrl, int concurrency) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.concurrency = concurrency;
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(concurrency))
+            .build();
+    }
+
+    /**
+     * Path'e süre boyunca istek gönderir; her worker bir öncekinin yanıtını bekledikten sonra yeni istek atar
+     */
+    public Result run(String path, long durationMillis) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(workers.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                long errors = 0;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors++;
+                        }
+                    } catch (Exception e) {
+                        errors++;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                long[] result = Arrays.copyOf(latencies, count + 1);
+                result[count] = errors; // son eleman hata sayısı
+                return result;
+            }));
+        }
+
+        List<long[]> perWorker = new ArrayList<>();
+        for (Future<long[]> future : futures) {
+            perWorker.add(future.get());
+        }
+        workers.shutdown();
+
+        long errors = 0;
+        int total = 0;
+        for (long[] latencies : perWorker) {
+            errors += latencies[latencies.length - 1];
+            total += latencies.length - 1;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (long[] latencies : perWorker) {
+            System.arraycopy(latencies, 0, all, offset, latencies.length - 1);
+            offset += latencies.length - 1;
+        }
+        Arrays.sort(all);
+        return new Result(path, all, errors, durationMillis);
+    }
+
+    public static final class Result {
+        private final String path;
+        private final long[] sortedNanos;
+        private final long errors;
+        private final long durationMillis;
+
+        Result(String path, long[] sortedNanos, long errors, long durationMillis) {
+            this.path = path;
+            this.sortedNanos = sortedNanos;
+            this.errors = errors;
+            this.durationMillis = durationMillis;
+        }
+
+        public double requestsPerSecond() {
+            return sortedNanos.length * 1000.0 / durationMillis;
+        }
+
+        /** Nearest-rank yüzdelik, milisaniye */
+        public double percentileMillis(double quantile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sortedNanos.length);
+            return sortedNanos[Math.max(0, Math.min(sortedNanos.length - 1, rank - 1))] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-24s %8d req %9.1f req/s  p50 %8.1f ms  p99 %8.1f ms  max %8.1f ms  errors %d",
+                path, sortedNanos.length, requestsPerSecond(), percentileMillis(0.50), percentileMillis(0.99),
+                percentileMillis(1.0), errors);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: java -cp target/test-classes dashboard.bench.LoadGenerator <baseUrl> " +
+                "[--paths /api/executions,/dashboard] [--concurrency 64] [--duration-seconds 30] [--warmup-seconds 5]");
+            System.exit(1);
+        }
+
+        List<String> paths = List.of("/api/executions", "/dashboard");
+        int concurrency = 64;
+        int durationSeconds = 30;
+        int warmupSeconds = 5;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--paths":
+                    paths = Arrays.asList(args[++i].split("\\s*,\\s*"));
+                    break;
+                case "--concurrency":
+                    concurrency = Integer.parseInt(args[++i]);
+                    break;
+                case "--duration-seconds":
+                    durationSeconds = Integer.parseInt(args[++i]);
+                    break;
+                case "--warmup-seconds":
+                    warmupSeconds = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        LoadGenerator loadGenerator = new LoadGenerator(args[0], Math.max(1, concurrency));
+        System.out.println("[LoadGenerator] " + args[0] + " - concurrency " + concurrency + ", " + durationSeconds + "s per path");
+        for (String path : paths) {
+            if (warmupSeconds > 0) {
+                loadGenerator.run(path, TimeUnit.SECONDS.toMillis(warmupSeconds));
+            }
+            System.out.println(loadGenerator.run(path, TimeUnit.SECONDS.toMillis(durationSeconds)));
+        }
+        System.exit(0);
+    }
+}
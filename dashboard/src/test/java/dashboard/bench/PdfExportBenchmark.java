@@ -0,0 +1,194 @@
+package dashboard.bench;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.Image;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import dashboard.PdfExporter;
+import dashboard.model.Execution;
+
+import java.awt.Color;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * PDF export'unun satır/saniye ve satır başına ayrılan bellek ölçümü. "before" satırı PdfRenderContext öncesi
+ * yolu (her hücrede yeni Font, Color ve PdfPCell, her export'ta logonun yeniden decode edilmesi), "after" satırı
+ * {@link PdfExporter}'ı ölçer. Çıktı atılır; yalnızca render maliyeti ölçülür.
+ * <p>
+ * Kullanım: java -cp target/classes:target/test-classes:&lt;bağımlılıklar&gt; dashboard.bench.PdfExportBenchmark
+ * [rows=20000] [iterations=10] [warmup=3]
+ */
+public class PdfExportBenchmark {
+
+    private static final int FLUSH_EVERY_ROWS = 200;
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private interface Export {
+        void run(Iterator<Execution> executions, String runId, OutputStream out) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int warmup = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        List<Execution> executions = executions(rows);
+
+        System.out.println("[PdfExportBenchmark] " + rows + " rows, " + warmup + " warmup + " + iterations + " iterations");
+        measure("before", PdfExportBenchmark::exportPerRowAllocation, executions, warmup, iterations);
+        measure("after", PdfExporter::export, executions, warmup, iterations);
+    }
+
+    private static void measure(String name, Export export, List<Execution> executions, int warmup, int iterations)
+            throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            export.run(executions.iterator(), "bench-run", DISCARD);
+        }
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = allocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            export.run(executions.iterator(), "bench-run", DISCARD);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes(threadId) - allocatedBefore;
+
+        long totalRows = (long) executions.size() * iterations;
+        System.out.println(String.format("%-8s %12.0f rows/s %10.0f B/row  (%d ms)",
+            name, totalRows * 1e9 / elapsed, allocated < 0 ? Double.NaN : (double) allocated / totalRows,
+            elapsed / 1_000_000));
+    }
+
+    /**
+     * Thread'in ayırdığı toplam bayt; JVM desteklemiyorsa -1
+     */
+    private static long allocatedBytes(long threadId) {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(threadId);
+        }
+        return -1;
+    }
+
+    private static List<Execution> executions(int rows) {
+        String[] statuses = {"PASSED", "PASSED", "PASSED", "FAILED", "SKIPPED"};
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Execution> executions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String status = statuses[i % statuses.length];
+            executions.add(new Execution("Scenario " + i + " - checkout with saved card", status, 500 + (i * 37L) % 9000,
+                null, start.plusSeconds(i), "bench-run",
+                "FAILED".equals(status) ? "Expected element #pay to be visible after 10s" : null));
+        }
+        return executions;
+    }
+
+    /**
+     * PdfRenderContext öncesi export: hücre başına font, renk ve hücre nesnesi, export başına logo decode'u
+     */
+    private static void exportPerRowAllocation(Iterator<Execution> executions, String runId, OutputStream out)
+            throws Exception {
+        Document document = new Document(PageSize.A4.rotate(), 36, 36, 54, 36);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        document.open();
+
+        try {
+            Image logo = Image.getInstance(PdfExportBenchmark.class.getClassLoader().getResource("public/logo.png"));
+            logo.scaleToFit(120, 60);
+            logo.setAlignment(Image.ALIGN_LEFT);
+            document.add(logo);
+        } catch (Exception e) {
+            // Logo bulunamazsa sorun olmaz
+        }
+
+        Paragraph title = new Paragraph("Test Execution Report", new Font(Font.HELVETICA, 18, Font.BOLD));
+        title.setAlignment(Element.ALIGN_CENTER);
+        document.add(title);
+
+        Paragraph runIdParagraph = new Paragraph("Run ID: " + (runId != null ? runId : "-"),
+            new Font(Font.HELVETICA, 12, Font.NORMAL));
+        runIdParagraph.setAlignment(Element.ALIGN_CENTER);
+        runIdParagraph.setSpacingAfter(20);
+        document.add(runIdParagraph);
+
+        PdfPTable table = new PdfPTable(new float[]{3, 1, 1, 2, 3});
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        table.setComplete(false);
+
+        addHeaderCell(table, "Scenario");
+        addHeaderCell(table, "Status");
+        addHeaderCell(table, "Duration (ms)");
+        addHeaderCell(table, "Timestamp");
+        addHeaderCell(table, "Error Message");
+
+        int rows = 0;
+        while (executions.hasNext()) {
+            Execution e = executions.next();
+            addCell(table, e.getScenario() != null ? e.getScenario() : "-");
+            addStatusCell(table, e.getStatus());
+            addCell(table, String.valueOf(e.getDuration()));
+            addCell(table, e.getTimestamp() != null ? e.getTimestamp().toString() : "-");
+            addCell(table, e.getError() != null ? e.getError() : "-");
+
+            if (++rows % FLUSH_EVERY_ROWS == 0) {
+                document.add(table);
+            }
+        }
+
+        table.setComplete(true);
+        document.add(table);
+        document.close();
+        out.flush();
+    }
+
+    private static void addHeaderCell(PdfPTable table, String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, new Font(Font.HELVETICA, 12, Font.BOLD)));
+        cell.setBackgroundColor(new Color(200, 200, 200));
+        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        cell.setPadding(5);
+        table.addCell(cell);
+    }
+
+    private static void addCell(PdfPTable table, String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, new Font(Font.HELVETICA, 10)));
+        cell.setPadding(5);
+        table.addCell(cell);
+    }
+
+    private static void addStatusCell(PdfPTable table, String status) {
+        PdfPCell cell = new PdfPCell(new Phrase(status != null ? status : "-", new Font(Font.HELVETICA, 10, Font.BOLD)));
+        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        cell.setPadding(5);
+        if ("PASSED".equalsIgnoreCase(status)) {
+            cell.setBackgroundColor(new Color(25, 135, 84));
+        } else if ("FAILED".equalsIgnoreCase(status)) {
+            cell.setBackgroundColor(new Color(220, 53, 69));
+        } else if ("SKIPPED".equalsIgnoreCase(status)) {
+            cell.setBackgroundColor(new Color(255, 193, 7));
+        } else {
+            cell.setBackgroundColor(new Color(211, 211, 211));
+        }
+        table.addCell(cell);
+    }
+}
@@ -0,0 +1,71 @@
+package dashboard.service;
+
+import dashboard.util.DurationHistogram;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DurationRegressionServiceTest {
+
+    @Test
+    void comparesRecentMedianWithBaselineP95() {
+        Map<String, Long> baseline = new HashMap<>();
+        baseline.put(String.valueOf(DurationHistogram.bucketOf(1000)), 90L);
+        baseline.put(String.valueOf(DurationHistogram.bucketOf(2000)), 10L);
+        long p50 = DurationHistogram.quantile(baseline, 0.50);
+        long p95 = DurationHistogram.quantile(baseline, 0.95);
+
+        Document summary = DurationRegressionService.summarize(baseline, durations(5000, 4000, 4400));
+
+        assertEquals(p50, summary.getLong("baselineP50"));
+        assertEquals(p95, summary.getLong("baselineP95"));
+        assertEquals(4400L, summary.getLong("recentMedian"));
+        assertEquals(Math.round(4400 * 1000.0 / p95) / 1000.0, summary.getDouble("ratio"));
+    }
+
+    @Test
+    void medianOfEvenCountAveragesTheMiddleValues() {
+        Map<String, Long> baseline = Map.of(String.valueOf(DurationHistogram.bucketOf(1000)), 10L);
+
+        Document summary = DurationRegressionService.summarize(baseline, durations(100, 400, 200, 300));
+
+        assertEquals(250L, summary.getLong("recentMedian"));
+    }
+
+    @Test
+    void readsIntAndDoubleDurations() {
+        Map<String, Long> baseline = Map.of(String.valueOf(DurationHistogram.bucketOf(1000)), 10L);
+        List<Document> recent = List.of(new Document("d", 300), new Document("d", 100.0), new Document("d", 200L));
+
+        assertEquals(200L, DurationRegressionService.summarize(baseline, recent).getLong("recentMedian"));
+    }
+
+    @Test
+    void emptyBaselineGivesZeroRatio() {
+        Document summary = DurationRegressionService.summarize(new HashMap<>(), durations(1000));
+
+        assertEquals(0L, summary.getLong("baselineP95"));
+        assertEquals(1000L, summary.getLong("recentMedian"));
+        assertEquals(0.0, summary.getDouble("ratio"));
+    }
+
+    @Test
+    void noRecentDurationsGiveZeroMedian() {
+        Map<String, Long> baseline = Map.of(String.valueOf(DurationHistogram.bucketOf(1000)), 10L);
+
+        Document summary = DurationRegressionService.summarize(baseline, List.of());
+
+        assertEquals(0L, summary.getLong("recentMedian"));
+        assertEquals(0.0, summary.getDouble("ratio"));
+    }
+
+    private static List<Document> durations(long... values) {
+        return Arrays.stream(values).mapToObj(value -> new Document("d", value)).toList();
+    }
+}
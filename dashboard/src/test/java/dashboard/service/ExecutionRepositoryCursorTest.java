@@ -0,0 +1,85 @@
+package dashboard.service;
+
+import com.mongodb.MongoClientSettings;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExecutionRepositoryCursorTest {
+
+    private static final ObjectId ID = new ObjectId("65a1b2c3d4e5f60718293a4b");
+
+    @Test
+    void dateCursorContinuesWithOlderDatesThenStringAndMissingTimestamps() {
+        Date timestamp = new Date(1_700_000_000_000L);
+        String cursor = ExecutionRepository.encodeCursor(new Document("_id", ID).append("timestamp", timestamp));
+
+        assertEquals("d:1700000000000|" + ID.toHexString(), decode(cursor));
+        BsonDocument filter = render(ExecutionRepository.afterCursor(cursor));
+        String json = filter.toJson();
+        assertTrue(json.contains("\"$lt\": {\"$date\""), json);
+        assertTrue(json.contains("\"_id\": {\"$lt\": {\"$oid\": \"" + ID.toHexString() + "\"}}"), json);
+        assertTrue(json.contains("\"$type\": 2"), json);
+        assertTrue(json.contains("{\"timestamp\": null}"), json);
+        assertEquals(4, filter.getArray("$or").size());
+    }
+
+    @Test
+    void stringCursorSkipsTheStringTypeBranch() {
+        String cursor = ExecutionRepository.encodeCursor(new Document("_id", ID).append("timestamp", "2024-01-01T10:00:00"));
+
+        assertEquals("s:2024-01-01T10:00:00|" + ID.toHexString(), decode(cursor));
+        BsonDocument filter = render(ExecutionRepository.afterCursor(cursor));
+        assertEquals(3, filter.getArray("$or").size());
+        assertFalse(filter.toJson().contains("$type"));
+        assertTrue(filter.toJson().contains("{\"timestamp\": {\"$lt\": \"2024-01-01T10:00:00\"}}"), filter.toJson());
+    }
+
+    @Test
+    void missingTimestampCursorOnlyPagesByIdAmongMissingTimestamps() {
+        String cursor = ExecutionRepository.encodeCursor(new Document("_id", ID));
+
+        assertEquals("n:|" + ID.toHexString(), decode(cursor));
+        assertEquals(BsonDocument.parse("{\"$and\": [{\"timestamp\": null}, {\"_id\": {\"$lt\": {\"$oid\": \"" +
+                ID.toHexString() + "\"}}}]}"),
+            render(ExecutionRepository.afterCursor(cursor)));
+    }
+
+    @Test
+    void stringTimestampContainingSeparatorRoundTrips() {
+        String cursor = ExecutionRepository.encodeCursor(new Document("_id", ID).append("timestamp", "a|b"));
+
+        assertTrue(render(ExecutionRepository.afterCursor(cursor)).toJson().contains("\"$lt\": \"a|b\""));
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ExecutionRepository.afterCursor("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> ExecutionRepository.afterCursor(encode("d:1|nothex")));
+        assertThrows(IllegalArgumentException.class, () -> ExecutionRepository.afterCursor(encode("d:abc|" + ID.toHexString())));
+        assertThrows(IllegalArgumentException.class, () -> ExecutionRepository.afterCursor(encode(ID.toHexString())));
+    }
+
+    private static BsonDocument render(Bson filter) {
+        return filter.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+    }
+
+    private static String decode(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
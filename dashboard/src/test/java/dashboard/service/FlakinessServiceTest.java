@@ -0,0 +1,76 @@
+package dashboard.service;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FlakinessServiceTest {
+
+    @Test
+    void alternatingResultsScoreHighest() {
+        Document score = FlakinessService.score(points("PFPFPF"));
+
+        assertEquals(6, score.getInteger("results"));
+        assertEquals(3, score.getInteger("failures"));
+        assertEquals(5, score.getInteger("flips"));
+        assertEquals(1.0, score.getDouble("flipRate"));
+        assertEquals(1.0, score.getDouble("score"));
+        assertEquals(3, score.getInteger("failureClusters"));
+        assertEquals(1.0, score.getDouble("avgClusterLength"));
+    }
+
+    @Test
+    void stableResultsScoreZero() {
+        Document passing = FlakinessService.score(points("PPPPPP"));
+        assertEquals(0, passing.getInteger("flips"));
+        assertEquals(0.0, passing.getDouble("score"));
+        assertEquals(0, passing.getInteger("failureClusters"));
+        assertEquals(0.0, passing.getDouble("avgClusterLength"));
+
+        Document failing = FlakinessService.score(points("FFFFFF"));
+        assertEquals(0.0, failing.getDouble("score"));
+        assertEquals(1, failing.getInteger("failureClusters"));
+        assertEquals(6.0, failing.getDouble("avgClusterLength"));
+    }
+
+    @Test
+    void groupsConsecutiveFailuresIntoClusters() {
+        Document score = FlakinessService.score(points("PFFPPFFFP"));
+
+        assertEquals(5, score.getInteger("failures"));
+        assertEquals(4, score.getInteger("flips"));
+        assertEquals(0.5, score.getDouble("flipRate"));
+        assertEquals(2, score.getInteger("failureClusters"));
+        assertEquals(2.5, score.getDouble("avgClusterLength"));
+    }
+
+    @Test
+    void fewResultsLowerTheScore() {
+        // İki sonuçta tek geçiş: flipRate 1, güven 2/5
+        Document score = FlakinessService.score(points("PF"));
+
+        assertEquals(1.0, score.getDouble("flipRate"));
+        assertEquals(0.4, score.getDouble("score"));
+    }
+
+    @Test
+    void singleResultHasNoFlipRate() {
+        Document score = FlakinessService.score(points("F"));
+
+        assertEquals(0.0, score.getDouble("flipRate"));
+        assertEquals(0.0, score.getDouble("score"));
+        assertEquals(1, score.getInteger("failureClusters"));
+    }
+
+    private static List<Document> points(String statuses) {
+        List<Document> points = new ArrayList<>();
+        for (char status : statuses.toCharArray()) {
+            points.add(new Document("s", String.valueOf(status)));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,43 @@
+package dashboard.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunDiffServiceTest {
+
+    @Test
+    void ordersSupplementaryCharactersAfterHighBmpCharacters() {
+        // UTF-16 sırasında U+1F600 (surrogate çifti) U+FF5E'den önce gelir, MongoDB'nin bayt sırasında sonra
+        String emoji = "test 😀";
+        String fullwidth = "test ～";
+        assertTrue(emoji.compareTo(fullwidth) < 0);
+        assertTrue(RunDiffService.MONGO_STRING_ORDER.compare(emoji, fullwidth) > 0);
+        assertTrue(RunDiffService.MONGO_STRING_ORDER.compare(fullwidth, emoji) < 0);
+    }
+
+    @Test
+    void prefixSortsFirstAndEqualStringsCompareEqual() {
+        assertTrue(RunDiffService.MONGO_STRING_ORDER.compare("login", "login flow") < 0);
+        assertTrue(RunDiffService.MONGO_STRING_ORDER.compare("login flow", "login") > 0);
+        assertEquals(0, RunDiffService.MONGO_STRING_ORDER.compare("Ödeme 😀", "Ödeme 😀"));
+        assertEquals(0, RunDiffService.MONGO_STRING_ORDER.compare("", ""));
+    }
+
+    @Test
+    void matchesUtf8ByteOrder() {
+        List<String> names = new ArrayList<>(List.of("b", "a", "Z", "ç", "～", "😀", "a😀", "aa", "é"));
+        List<String> byBytes = new ArrayList<>(names);
+        byBytes.sort((left, right) -> Arrays.compareUnsigned(
+            left.getBytes(StandardCharsets.UTF_8), right.getBytes(StandardCharsets.UTF_8)));
+
+        names.sort(RunDiffService.MONGO_STRING_ORDER);
+        assertEquals(byBytes, names);
+    }
+}
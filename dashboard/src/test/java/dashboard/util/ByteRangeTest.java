@@ -0,0 +1,58 @@
+package dashboard.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ByteRangeTest {
+
+    @Test
+    void parsesClosedRange() {
+        ByteRange range = ByteRange.parse("bytes=0-99", 1000);
+        assertEquals(0, range.getStart());
+        assertEquals(99, range.getEnd());
+        assertEquals(100, range.length());
+    }
+
+    @Test
+    void openEndedRangeRunsToTheLastByte() {
+        ByteRange range = ByteRange.parse("bytes=900-", 1000);
+        assertEquals(900, range.getStart());
+        assertEquals(999, range.getEnd());
+    }
+
+    @Test
+    void endIsClampedToTheContentLength() {
+        assertEquals(999, ByteRange.parse("bytes=500-5000", 1000).getEnd());
+    }
+
+    @Test
+    void suffixRangeReturnsTheLastBytes() {
+        ByteRange range = ByteRange.parse("bytes=-100", 1000);
+        assertEquals(900, range.getStart());
+        assertEquals(999, range.getEnd());
+
+        ByteRange whole = ByteRange.parse("bytes=-5000", 1000);
+        assertEquals(0, whole.getStart());
+        assertEquals(1000, whole.length());
+    }
+
+    @Test
+    void unsupportedOrInvalidHeadersServeTheWholeContent() {
+        assertNull(ByteRange.parse(null, 1000));
+        assertNull(ByteRange.parse("items=0-1", 1000));
+        assertNull(ByteRange.parse("bytes=0-1,5-9", 1000));
+        assertNull(ByteRange.parse("bytes=10", 1000));
+        assertNull(ByteRange.parse("bytes=a-b", 1000));
+        assertNull(ByteRange.parse("bytes=50-10", 1000));
+    }
+
+    @Test
+    void rangesOutsideTheContentAreUnsatisfiable() {
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=1000-", 1000));
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=-0", 1000));
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=-10", 0));
+    }
+}
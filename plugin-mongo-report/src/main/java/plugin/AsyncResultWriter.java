@@ -0,0 +1,290 @@
+package plugin;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test sonuçlarını bounded bir kuyrukta toplayıp arka planda insertMany ile MongoDB'ye yazar.
+ * Batch boyutu veya flush aralığı dolduğunda yazma yapılır; close() ve JVM kapanışında kuyruk boşaltılır.
+ * <p>
+ * Yazılamayan veya kuyruğa sığmayan sonuçlar {@link ResultSpool} formatındaki spill dosyasına alınır ve
+ * {@link SpoolReplayer} ile gönderilir. _id'ler kuyruğa girerken verildiği için tekrar gönderim çift kayıt üretmez.
+ */
+public class AsyncResultWriter implements AutoCloseable {
+
+    /**
+     * Kuyruk dolduğunda uygulanacak davranış
+     */
+    public enum BackpressurePolicy {
+        /** Test thread'i kuyrukta yer açılana kadar bekler */
+        BLOCK,
+        /** Sonuç atılır ve sayacı artırılır */
+        DROP,
+        /** Sonuç spill dosyasına (ResultSpool) yazılır */
+        SPILL;
+
+        public static BackpressurePolicy parse(String value) {
+            if (value == null) return BLOCK;
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("[AsyncResultWriter] Unknown backpressure policy '" + value + "', using BLOCK");
+                return BLOCK;
+            }
+        }
+    }
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+    private static final long CLOSE_TIMEOUT_MILLIS = 30_000;
+
+    private final MongoCollection<Document> collection;
+    private final BlockingQueue<Document> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final BackpressurePolicy policy;
+    private final Path spillFile;
+    private final RunSummaryUpdater summaryUpdater;
+    private final Object spillLock = new Object();
+    private ResultSpool spillSpool;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final Thread worker;
+    private final Thread shutdownHook;
+    private volatile boolean closed = false;
+
+    public AsyncResultWriter(MongoCollection<Document> collection, int batchSize, long flushIntervalMillis,
+                             int queueCapacity, BackpressurePolicy policy, Path spillFile,
+                             RunSummaryUpdater summaryUpdater) {
+        this.collection = collection;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMillis));
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.policy = (policy != null) ? policy : BackpressurePolicy.BLOCK;
+        this.spillFile = spillFile;
+        this.summaryUpdater = summaryUpdater;
+
+        this.worker = new Thread(this::drainLoop, "mongo-report-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+
+        this.shutdownHook = new Thread(this::close, "mongo-report-writer-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+        System.out.println("[AsyncResultWriter] Started - batch size: " + this.batchSize +
+            ", flush interval: " + flushIntervalMillis + "ms, queue capacity: " + queueCapacity +
+            ", backpressure: " + this.policy);
+    }
+
+    /**
+     * Sonucu yazma kuyruğuna ekler. Kuyruk doluysa backpressure politikası uygulanır.
+     * @return sonuç kuyruğa veya spill dosyasına alındıysa true, atıldıysa false
+     */
+    public boolean submit(Document doc) {
+        // _id ilk denemeden önce verilir: tekrar denemede veya spill'in gönderiminde yazılmış sonuçlar
+        // duplicate key ile reddedilir ve yazılmış sayılır
+        if (!doc.containsKey("_id")) {
+            doc.put("_id", new ObjectId());
+        }
+        if (closed) {
+            // Writer kapandıktan sonra gelen sonuçları kaybetmemek için doğrudan yaz
+            writeBatch(List.of(doc));
+            return true;
+        }
+
+        switch (policy) {
+            case DROP:
+                if (!queue.offer(doc)) {
+                    long dropped = droppedCount.incrementAndGet();
+                    System.err.println("[AsyncResultWriter] Queue full, result dropped (total dropped: " + dropped + ")");
+                    return false;
+                }
+                return true;
+            case SPILL:
+                if (!queue.offer(doc)) {
+                    spill(List.of(doc));
+                }
+                return true;
+            case BLOCK:
+            default:
+                try {
+                    queue.put(doc);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    writeBatch(List.of(doc));
+                }
+                return true;
+        }
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    private void drainLoop() {
+        List<Document> batch = new ArrayList<>(batchSize);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+
+        while (true) {
+            try {
+                long waitNanos = deadline - System.nanoTime();
+                Document doc = waitNanos > 0 ? queue.poll(waitNanos, TimeUnit.NANOSECONDS) : queue.poll();
+                if (doc != null) {
+                    batch.add(doc);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                closed = true;
+            }
+
+            boolean due = System.nanoTime() - deadline >= 0;
+            if (batch.size() >= batchSize || (due && !batch.isEmpty())) {
+                writeBatch(batch);
+                batch.clear();
+            }
+            if (due) {
+                deadline = System.nanoTime() + flushIntervalNanos;
+            }
+
+            if (closed && queue.isEmpty()) {
+                break;
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<Document> batch) {
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            try {
+                collection.insertMany(new ArrayList<>(batch), new InsertManyOptions().ordered(false));
+                System.out.println("[AsyncResultWriter] " + batch.size() + " test results written to MongoDB");
+                if (summaryUpdater != null) {
+                    summaryUpdater.apply(batch);
+                }
+                return;
+            } catch (MongoBulkWriteException e) {
+                // ordered=false: geçerli dokümanlar yazıldı, yalnızca hatalı olanlar reddedildi
+                List<BulkWriteError> rejected = new ArrayList<>();
+                for (BulkWriteError error : e.getWriteErrors()) {
+                    if (attempt == 1 || error.getCode() != DUPLICATE_KEY_ERROR) {
+                        rejected.add(error);
+                    }
+                }
+                if (!rejected.isEmpty()) {
+                    System.err.println("[AsyncResultWriter] " + rejected.size() + " of " + batch.size() +
+                        " results rejected by MongoDB: " + e.getMessage());
+                }
+                if (summaryUpdater != null) {
+                    summaryUpdater.applyWritten(batch, rejected);
+                }
+                return;
+            } catch (Exception e) {
+                System.err.println("[AsyncResultWriter] Batch write failed (attempt " + attempt + "/" +
+                    MAX_WRITE_ATTEMPTS + "): " + e.getMessage());
+                try {
+                    Thread.sleep(200L * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        spill(batch);
+    }
+
+    private void spill(List<Document> docs) {
+        if (spillFile == null) {
+            long dropped = droppedCount.addAndGet(docs.size());
+            System.err.println("[AsyncResultWriter] No spill file configured, " + docs.size() +
+                " results lost (total dropped: " + dropped + ")");
+            return;
+        }
+
+        synchronized (spillLock) {
+            try {
+                if (spillSpool == null) {
+                    spillSpool = ResultSpool.openForProcess(spillFile);
+                }
+                for (Document doc : docs) {
+                    spillSpool.append(doc);
+                }
+                spilledCount.addAndGet(docs.size());
+            } catch (IOException | RuntimeException e) {
+                droppedCount.addAndGet(docs.size());
+                System.err.println("[AsyncResultWriter] Failed to spill " + docs.size() + " results to " +
+                    spillFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Kuyruktaki tüm sonuçları yazar ve arka plan thread'ini durdurur
+     */
+    @Override
+    public synchronized void close() {
+        // Worker en geç bir flush aralığı içinde closed bayrağını görür ve kuyruğu boşaltır.
+        // Interrupt kullanılmıyor; yazma sırasındaki driver I/O'sunu yarıda kesebilir.
+        closed = true;
+
+        try {
+            worker.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Document> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (worker.isAlive()) {
+            System.err.println("[AsyncResultWriter] Writer did not finish within " + CLOSE_TIMEOUT_MILLIS +
+                "ms, spilling " + remaining.size() + " queued results");
+            if (!remaining.isEmpty()) {
+                spill(remaining);
+            }
+        } else if (!remaining.isEmpty()) {
+            // Worker çıktıktan hemen önce kuyruğa girmiş sonuçlar
+            writeBatch(remaining);
+        }
+
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // JVM zaten kapanıyor
+        }
+
+        Path spilledTo = null;
+        synchronized (spillLock) {
+            if (spillSpool != null) {
+                spilledTo = spillSpool.getFile();
+                spillSpool.close();
+                spillSpool = null;
+            }
+        }
+
+        if (droppedCount.get() > 0 || spilledCount.get() > 0) {
+            System.err.println("[AsyncResultWriter] Closed - dropped: " + droppedCount.get() +
+                ", spilled: " + spilledCount.get() +
+                (spilledTo != null ? " (" + spilledTo + ", replay it with plugin.SpoolReplayer)" : ""));
+        }
+    }
+}
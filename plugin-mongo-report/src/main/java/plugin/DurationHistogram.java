@@ -0,0 +1,27 @@
+package plugin;
+
+/**
+ * Süreleri logaritmik kovalara (her kova bir öncekinden %10 geniş) ayıran sabit histogram.
+ * Kova sayaçları $inc ile birleştirilebildiği için run özetlerinde p50/p95 tahmini sunucu tarafında artımlı tutulur.
+ * Dashboard tarafındaki dashboard.util.DurationHistogram aynı kova tanımını kullanır.
+ */
+public final class DurationHistogram {
+
+    /** Ardışık kova sınırları arasındaki oran; tahmin hatası yaklaşık %5 */
+    public static final double GAMMA = 1.1;
+
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private DurationHistogram() {
+    }
+
+    /**
+     * Verilen süre (ms) için kova indeksi; 0 ms ve altı 0 numaralı kovaya düşer
+     */
+    public static int bucketOf(long durationMillis) {
+        if (durationMillis <= 1) {
+            return 0;
+        }
+        return (int) Math.ceil(Math.log(durationMillis) / LOG_GAMMA);
+    }
+}
@@ -0,0 +1,91 @@
+package plugin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Hata mesajlarını değişken kısımlarından (URL, id, zaman, sayı) arındırıp kısa bir imzaya çevirir.
+ * Aynı sorundan kaynaklanan farklı senaryoların hataları aynı errorSignature'ı alır ve dashboard'da gruplanır.
+ * <p>
+ * Yalnızca mesajın ilk satırı kullanılır; Selenium'un eklediği "Build info", "Session ID" gibi satırlar imzayı bozmaz.
+ */
+public final class ErrorFingerprint {
+
+    private static final Pattern URL = Pattern.compile("\\b[a-zA-Z][a-zA-Z0-9+.-]*://\\S+");
+    private static final Pattern UUID = Pattern.compile(
+        "\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b");
+    private static final Pattern TIMESTAMP = Pattern.compile(
+        "\\b\\d{4}-\\d{2}-\\d{2}([T ]\\d{2}:\\d{2}(:\\d{2}(\\.\\d+)?)?(Z|[+-]\\d{2}:?\\d{2})?)?\\b|\\b\\d{1,2}:\\d{2}:\\d{2}(\\.\\d+)?\\b");
+    private static final Pattern HEX_ID = Pattern.compile("\\b(?=[0-9a-fA-F]*[a-fA-F])(?=[0-9a-fA-F]*\\d)[0-9a-fA-F]{8,}\\b");
+    private static final Pattern OBJECT_HASH = Pattern.compile("@[0-9a-fA-F]{4,}\\b");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final int SIGNATURE_LENGTH = 16;
+
+    private ErrorFingerprint() {
+    }
+
+    /**
+     * Mesajın ilk satırını normalize eder: URL, UUID, zaman damgası, hex id ve sayılar yer tutucuyla değiştirilir
+     */
+    public static String normalize(String message) {
+        if (message == null) {
+            return "";
+        }
+        String text = message.strip();
+        int newline = text.indexOf('\n');
+        if (newline >= 0) {
+            text = text.substring(0, newline);
+        }
+        text = URL.matcher(text).replaceAll("<url>");
+        text = UUID.matcher(text).replaceAll("<uuid>");
+        text = TIMESTAMP.matcher(text).replaceAll("<ts>");
+        text = OBJECT_HASH.matcher(text).replaceAll("@<hex>");
+        // Uzun hex dizileri (session id, ObjectId, hash) hem harf hem rakam içerir
+        text = HEX_ID.matcher(text).replaceAll("<hex>");
+        text = NUMBER.matcher(text).replaceAll("<n>");
+        return WHITESPACE.matcher(text).replaceAll(" ").strip();
+    }
+
+    /**
+     * Normalize edilmiş mesajın SHA-1 özetinin ilk 16 hex karakteri; mesaj boşsa null
+     */
+    public static String signature(String message) {
+        if (message == null || message.isBlank()) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(normalize(message).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(SIGNATURE_LENGTH);
+            for (int i = 0; i < SIGNATURE_LENGTH / 2; i++) {
+                hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+
+    /**
+     * Stack trace'in tamamını gzip'ler; execution_details koleksiyonunda saklanır
+     */
+    public static byte[] compressedStackTrace(Throwable error) {
+        StringWriter text = new StringWriter();
+        error.printStackTrace(new PrintWriter(text));
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(text.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
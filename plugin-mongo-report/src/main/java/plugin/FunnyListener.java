@@ -2,36 +2,55 @@ package plugin;
 
 import io.cucumber.plugin.ConcurrentEventListener;
 import io.cucumber.plugin.event.*;
-import java.util.HashMap;
-import java.util.Map;
 
+/**
+ * Senaryo başına adım sonuçlarını ve gerçek hata nedenini {@link ScenarioOutcomes} içinde toplar.
+ * Tüm durum TestCase id'sine göre ayrıldığı için paralel senaryo thread'lerinde sonuçlar karışmaz.
+ */
 public class FunnyListener implements ConcurrentEventListener {
-    public static String finalResult;
 
-    private final Map<String, String> scenarioErrors = new HashMap<>();
+    private final ScenarioOutcomes outcomes = MongoReporterRegistry.scenarioOutcomes();
 
     @Override
     public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseStarted.class, this::onTestCaseStarted);
         publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+    }
+
+    private void onTestCaseStarted(TestCaseStarted event) {
+        outcomes.start(event.getTestCase().getId().toString(), event.getTestCase().getName());
     }
 
     private void onTestStepFinished(TestStepFinished event) {
         if (!(event.getTestStep() instanceof PickleStepTestStep)) return;
 
+        PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+        TestCase testCase = event.getTestCase();
         Result result = event.getResult();
-        if (result.getStatus().is(Status.FAILED)) {
-            String scenarioId = event.getTestCase().getId().toString();
-            Throwable error = result.getError();
-            if (error != null) {
-                String errorMessage = error.getMessage();
-                scenarioErrors.put(scenarioId, errorMessage);
-                finalResult = errorMessage;
-                System.out.println("[FunnyListener] finalResult set: " + finalResult);
-            }
+        ScenarioOutcome outcome = outcomes.start(testCase.getId().toString(), testCase.getName());
+
+        outcome.addStep(new StepTiming(
+                step.getStep().getText(),
+                step.getPattern(),
+                result.getDuration().toMillis(),
+                result.getStatus().name()),
+            result.getStatus().is(Status.FAILED) ? result.getError() : null);
+
+        if (result.getStatus().is(Status.FAILED) && result.getError() != null) {
+            System.out.println("[FunnyListener] " + testCase.getName() + " failed: " + result.getError().getMessage());
         }
     }
 
+    private void onTestCaseFinished(TestCaseFinished event) {
+        outcomes.finish(event.getTestCase().getId().toString());
+    }
+
+    /**
+     * Çalışmakta olan senaryonun hata mesajı, bilinmiyorsa null
+     */
     public String getErrorForScenario(String scenarioId) {
-        return scenarioErrors.get(scenarioId);
+        ScenarioOutcome outcome = outcomes.get(scenarioId);
+        return outcome != null ? outcome.getErrorMessage() : null;
     }
 }
@@ -0,0 +1,33 @@
+package plugin;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.model.GridFSUploadOptions;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+
+import java.io.ByteArrayInputStream;
+
+/**
+ * Görüntüleri GridFS'te dosya adı = SHA-256 olacak şekilde saklar.
+ * İki agent aynı görüntüyü aynı anda yüklerse iki kopya oluşabilir; okuyan taraf ilkini kullanır.
+ */
+public class GridFsScreenshotStore implements ScreenshotStore {
+
+    private final GridFSBucket bucket;
+
+    public GridFsScreenshotStore(MongoDatabase database, String bucketName) {
+        this.bucket = GridFSBuckets.create(database, bucketName);
+    }
+
+    @Override
+    public String put(byte[] data, String contentType) {
+        String hash = ScreenshotStore.sha256(data);
+        if (bucket.find(Filters.eq("filename", hash)).limit(1).first() == null) {
+            bucket.uploadFromStream(hash, new ByteArrayInputStream(data),
+                new GridFSUploadOptions().metadata(new Document("contentType", contentType)));
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,46 @@
+package plugin;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Görüntüleri yerel klasörde &lt;ilk 2 karakter&gt;/&lt;sha256&gt; olarak saklar; testler ve tek makineli kurulumlar için.
+ * Dashboard aynı klasörü SCREENSHOT_STORE=local ile okuyabilir.
+ */
+public class LocalScreenshotStore implements ScreenshotStore {
+
+    private final Path root;
+
+    public LocalScreenshotStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public String put(byte[] data, String contentType) throws IOException {
+        String hash = ScreenshotStore.sha256(data);
+        Path target = root.resolve(hash.substring(0, 2)).resolve(hash);
+        if (Files.exists(target)) {
+            return hash;
+        }
+
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+        try {
+            Files.write(temp, data);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target);
+            }
+        } catch (FileAlreadyExistsException e) {
+            // Aynı içerik başka bir thread tarafından yazıldı
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return hash;
+    }
+}
@@ -4,6 +4,8 @@ import io.cucumber.java.Scenario;
 import org.openqa.selenium.WebDriver;
 import org.opentest4j.TestAbortedException;
 
+import java.util.List;
+
 /**
  * JUnit 5, TestNG ve Cucumber için MongoDB raporlama hook'u
  */
@@ -46,11 +48,11 @@ public class MongoReportHook {
             
             // Gerekli konfigürasyon varsa initialize et
             if (mongoUri != null && dbName != null) {
-                System.out.println("[MongoReportHook] MongoReporter konfigürasyonla oluşturuluyor");
-                this.mongoReporter = new MongoReporter(mongoUri, dbName, collectionName);
-                this.mongoReporter.ensureInitialized();
+                // Reporter ve bağlantı havuzu JVM genelinde paylaşılır; yalnızca ilk hook bağlantı kurar
+                this.mongoReporter = MongoReporterRegistry.getReporter(mongoUri, dbName, collectionName,
+                    ConfigLoader.getProperty("screenshot.mode", "on_failure"));
                 
-                if (this.mongoReporter.isInitialized()) {
+                if (this.mongoReporter.isInitialized() || this.mongoReporter.isSpooling()) {
                     System.out.println("[MongoReportHook] MongoReporter başarıyla başlatıldı");
                 } else {
                     System.err.println("[MongoReportHook] UYARI: MongoReporter başlatılamadı. MongoDB raporlama devre dışı.");
@@ -94,17 +96,22 @@ public class MongoReportHook {
     public void afterScenario(Scenario scenario) {
         String status = scenario.isFailed() ? "FAILED" : "PASSED";
         String errorMessage = null;
+        // Adım süreleri ve gerçek hata, FunnyListener'ın bu senaryo (TestCase id) için topladığı sonuçtan gelir
+        ScenarioOutcome outcome = MongoReporterRegistry.scenarioOutcomes().get(scenario.getId());
         
         if (scenario.isFailed()) {
-            errorMessage = "Test başarısız oldu";
-            // Cucumber'da doğrudan exception bilgisine erişim yok,
-            // bu yüzden sadece durum bilgisini kullanıyoruz
+            errorMessage = outcome != null ? outcome.getErrorMessage() : null;
+            if (errorMessage == null) {
+                errorMessage = "Test başarısız oldu";
+            }
         }
         
         reportTestResult(
             scenario.getName(),
             status,
-            errorMessage
+            errorMessage,
+            outcome != null ? outcome.getSteps() : null,
+            outcome != null ? outcome.getError() : null
         );
     }
 
@@ -126,19 +133,19 @@ public class MongoReportHook {
      * Genel test sonucu raporlama metodu
      */
     public void reportTestResult(String testName, String status, String errorMessage) {
+        reportTestResult(testName, status, errorMessage, null, null);
+    }
+
+    private void reportTestResult(String testName, String status, String errorMessage, List<StepTiming> steps,
+                                  Throwable error) {
         long endTime = System.currentTimeMillis();
         long duration = endTime - startTime;
 
-        String screenshotPath = null;
-        if (status.equals("FAILED") && driver != null) {
-            screenshotPath = ScreenshotUtil.captureScreenshot(driver, testName);
-        }
-
-        // Hata mesajını işle
+        // Reporter tam mesajdan imza üretir ve dokümanda kısaltır; burada yalnızca log için kısaltılır
         String finalErrorMessage = null;
         if (errorMessage != null && !errorMessage.isEmpty()) {
-            finalErrorMessage = extractSimpleErrorMessage(errorMessage);
-            System.out.println("[MongoReportHook] Hata mesajı: " + finalErrorMessage);
+            finalErrorMessage = errorMessage;
+            System.out.println("[MongoReportHook] Hata mesajı: " + extractSimpleErrorMessage(errorMessage));
         }
 
         // Skip if initialization failed or mongoReporter is not available
@@ -148,19 +155,36 @@ public class MongoReportHook {
         }
         
         // Skip if not initialized
-        if (!mongoReporter.isInitialized()) {
+        if (!mongoReporter.isInitialized() && !mongoReporter.isSpooling()) {
             System.err.println("[MongoReportHook] WARNING: MongoReporter is not initialized. Test results will not be saved to MongoDB.");
             return;
         }
+
+        String screenshotMode = mongoReporter.getScreenshotMode();
+        boolean captureScreenshot = driver != null &&
+            ("always".equalsIgnoreCase(screenshotMode) || ("on_failure".equalsIgnoreCase(screenshotMode) && status.equals("FAILED")));
         
-        // Log the test result
+        if (captureScreenshot) {
+            // Test thread'i yalnızca WebDriver çağrısını bekler; sonuç dosya yazılınca pipeline thread'inde kaydedilir
+            String message = finalErrorMessage;
+            ScreenshotUtil.captureScreenshotAsync(driver, testName)
+                .thenAccept(screenshotPath -> log(testName, status, duration, screenshotPath, message, steps, error));
+        } else {
+            log(testName, status, duration, null, finalErrorMessage, steps, error);
+        }
+    }
+
+    private void log(String testName, String status, long duration, String screenshotPath, String errorMessage,
+                     List<StepTiming> steps, Throwable error) {
         try {
             mongoReporter.logScenario(
                 testName,
                 status,
                 duration,
                 screenshotPath,
-                finalErrorMessage
+                errorMessage,
+                steps,
+                error
             );
             System.out.println(String.format("[MongoReportHook] %s - %s (Süre: %dms)", 
                 testName, status, duration));
@@ -0,0 +1,184 @@
+package plugin;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EmbedEvent;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import org.bson.Document;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cucumber sonuçlarını olaylardan toplayıp MongoDB'ye yazan plugin; @CucumberOptions içinde
+ * {@code plugin = {"plugin.MongoReportPlugin"}} ile kaydedilir.
+ * <p>
+ * Süreler Cucumber olaylarının zamanlarından hesaplanır, sonuçlar run boyunca bellekte toplanır ve
+ * TestRunFinished'da tek seferde yazılır. Hook'larda {@code scenario.attach(bytes, "image/png", ...)} ile
+ * eklenen ekran görüntüleri senaryonun screenshotPath'ine yazılır; screenshot.mode=never ise görüntüler atılır.
+ */
+public class MongoReportPlugin implements ConcurrentEventListener {
+
+    private static final long SCREENSHOT_WAIT_SECONDS = 60;
+
+    private final Map<UUID, Instant> startTimes = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<String>> screenshots = new ConcurrentHashMap<>();
+    private final Map<UUID, Queue<StepTiming>> steps = new ConcurrentHashMap<>();
+    private final Queue<PendingResult> results = new ConcurrentLinkedQueue<>();
+    private volatile MongoReporter reporter;
+    private volatile boolean screenshotsEnabled = true;
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, this::onTestRunStarted);
+        publisher.registerHandlerFor(TestCaseStarted.class, this::onTestCaseStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(EmbedEvent.class, this::onEmbed);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, this::onTestRunFinished);
+    }
+
+    private void onTestRunStarted(TestRunStarted event) {
+        screenshotsEnabled = !"never".equalsIgnoreCase(
+            MongoReporter.setting("SCREENSHOT_MODE", "screenshot.mode", "on_failure"));
+        try {
+            reporter = MongoReporterRegistry.getReporterFromConfig();
+        } catch (Exception e) {
+            System.err.println("[MongoReportPlugin] MongoDB reporting disabled: " + e.getMessage());
+        }
+    }
+
+    private void onTestCaseStarted(TestCaseStarted event) {
+        startTimes.put(event.getTestCase().getId(), event.getInstant());
+    }
+
+    private void onTestStepFinished(TestStepFinished event) {
+        if (!(event.getTestStep() instanceof PickleStepTestStep)) {
+            return;
+        }
+        PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+        steps.computeIfAbsent(event.getTestCase().getId(), id -> new ConcurrentLinkedQueue<>())
+            .add(new StepTiming(
+                step.getStep().getText(),
+                step.getPattern(),
+                event.getResult().getDuration().toMillis(),
+                event.getResult().getStatus().name()));
+    }
+
+    private void onEmbed(EmbedEvent event) {
+        if (!screenshotsEnabled || event.getMediaType() == null || !event.getMediaType().startsWith("image/")) {
+            return;
+        }
+        String name = event.getName() != null ? event.getName() : event.getTestCase().getName();
+        // Birden fazla görüntü eklenirse sonuncusu (genelde hata anı) kullanılır
+        screenshots.put(event.getTestCase().getId(), ScreenshotUtil.saveScreenshotAsync(event.getData(), name));
+    }
+
+    private void onTestCaseFinished(TestCaseFinished event) {
+        UUID id = event.getTestCase().getId();
+        Instant startTime = startTimes.remove(id);
+        CompletableFuture<String> screenshot = screenshots.remove(id);
+        Queue<StepTiming> scenarioSteps = steps.remove(id);
+        MongoReporter currentReporter = reporter;
+        if (currentReporter == null) {
+            return;
+        }
+
+        Result result = event.getResult();
+        long duration = startTime != null
+            ? Duration.between(startTime, event.getInstant()).toMillis()
+            : result.getDuration().toMillis();
+        String errorMessage = null;
+        if (result.getError() != null) {
+            errorMessage = result.getError().getMessage() != null
+                ? result.getError().getMessage() : result.getError().getClass().getName();
+        }
+
+        Document doc = currentReporter.scenarioDocument(
+            event.getTestCase().getName(),
+            result.getStatus().name(),
+            duration,
+            null,
+            errorMessage,
+            Date.from(event.getInstant()));
+        if (scenarioSteps != null && !scenarioSteps.isEmpty()) {
+            doc.append("steps", MongoReporter.stepDocuments(new ArrayList<>(scenarioSteps)));
+        }
+        currentReporter.attachError(doc, result.getError());
+        results.add(new PendingResult(doc, screenshot));
+    }
+
+    private void onTestRunFinished(TestRunFinished event) {
+        MongoReporter currentReporter = reporter;
+        List<PendingResult> pending = new ArrayList<>(results.size());
+        PendingResult next;
+        while ((next = results.poll()) != null) {
+            pending.add(next);
+        }
+
+        List<CompletableFuture<String>> screenshotWrites = new ArrayList<>();
+        for (PendingResult result : pending) {
+            if (result.screenshot != null) {
+                screenshotWrites.add(result.screenshot);
+            }
+        }
+        try {
+            CompletableFuture.allOf(screenshotWrites.toArray(CompletableFuture<?>[]::new))
+                .get(SCREENSHOT_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.err.println("[MongoReportPlugin] Some screenshots were not written in time: " + e.getMessage());
+        }
+
+        // Dosya yolu yalnızca burada, bu thread'de eklenir; süresi içinde bitmeyen görüntüler sonradan dokümanı değiştirmez
+        List<Document> batch = new ArrayList<>(pending.size());
+        for (PendingResult result : pending) {
+            String path = result.screenshotPath();
+            if (path != null) {
+                result.doc.put("screenshotPath", path);
+            }
+            batch.add(result.doc);
+        }
+        if (currentReporter != null && !batch.isEmpty()) {
+            currentReporter.logScenarios(batch);
+        }
+    }
+
+    /**
+     * Run sonunda yazılacak senaryo dokümanı ve varsa yazılmakta olan ekran görüntüsü
+     */
+    private static final class PendingResult {
+        private final Document doc;
+        private final CompletableFuture<String> screenshot;
+
+        private PendingResult(Document doc, CompletableFuture<String> screenshot) {
+            this.doc = doc;
+            this.screenshot = screenshot;
+        }
+
+        /**
+         * Görüntü başarıyla yazıldıysa dosya yolu; yazılmadıysa, hata verdiyse veya henüz bitmediyse null
+         */
+        private String screenshotPath() {
+            if (screenshot == null || !screenshot.isDone() || screenshot.isCompletedExceptionally()) {
+                return null;
+            }
+            return screenshot.getNow(null);
+        }
+    }
+}
@@ -1,40 +1,73 @@
 package plugin;
 
 import com.mongodb.ConnectionString;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoClientSettings;
 import com.mongodb.MongoException;
 import com.mongodb.MongoWriteException;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.InsertManyOptions;
 import org.bson.Document;
 import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
  * JUnit 5, TestNG ve Cucumber test sonuçlarını MongoDB'ye kaydetmek için yardımcı sınıf
  */
 public class MongoReporter {
+    /** Doküman şeması: 2 = timestamp BSON Date, runId {@link RunIds} formatında */
+    public static final int SCHEMA_VERSION = 2;
+    /** Sonuç dokümanında tutulan hata mesajı uzunluğu; tam stack trace execution_details'e yazılır */
+    public static final int ERROR_MESSAGE_MAX_LENGTH = 150;
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
     // Instance properties
     private final Object lock = new Object();
     private MongoCollection<Document> collection;
     private String screenshotMode = "on_failure";
+    private final RunSession session;
     private String currentRunId;
     private boolean initialized = false;
     private boolean initializationInProgress = false;
     private Throwable initializationError = null;
     private MongoClient mongoClient;
+    private boolean ownsClient = true;
+    private AsyncResultWriter asyncWriter;
+    private RunSummaryUpdater summaryUpdater;
+    private RunShardTracker shardTracker;
+    private MongoCollection<Document> detailsCollection;
+    private final Map<Object, Document> pendingDetails = new ConcurrentHashMap<>();
+    private ResultSpool spool;
+    private SpoolReplayer spoolReplayer;
+    /** Doğrudan yazma tekrar denemelerle de başarısız olursa sonuçların alındığı spool; ilk ihtiyaçta açılır */
+    private ResultSpool fallbackSpool;
     
     /**
      * Creates a new instance of MongoReporter
      */
     public MongoReporter() {
-        this.currentRunId = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        this.session = RunSession.current();
+        this.currentRunId = session.getRunId();
         System.out.println("[MongoReporter] MongoReporter instance created. Connection will be initialized on first use.");
     }
     
@@ -63,6 +96,27 @@ public class MongoReporter {
         }
     }
     
+    /**
+     * Creates a MongoReporter on top of an existing, externally owned MongoClient.
+     * The client is not closed by {@link #close()}; see {@link MongoReporterRegistry}.
+     */
+    MongoReporter(MongoClient sharedClient, String dbName, String collectionName, String screenshotMode) {
+        this();
+        initialize(sharedClient, false, dbName,
+                  (collectionName != null) ? collectionName : "test_results",
+                  (screenshotMode != null) ? screenshotMode : "on_failure");
+    }
+    
+    /**
+     * Creates an offline MongoReporter that only writes to the local spool file.
+     * Used when MongoDB is unreachable; the spool is shipped later with {@link SpoolReplayer}.
+     */
+    MongoReporter(ResultSpool offlineSpool) {
+        this();
+        this.spool = offlineSpool;
+        System.out.println("[MongoReporter] MongoDB unavailable, results are spooled to " + offlineSpool.getFile());
+    }
+    
     /**
      * Initializes the MongoDB connection with the specified configuration
      */
@@ -71,6 +125,27 @@ public class MongoReporter {
             return;
         }
         
+        synchronized (lock) {
+            if (initialized) {
+                return;
+            }
+            
+            if (mongoUri == null) {
+                throw new IllegalArgumentException("MongoDB URI, database name, and collection name cannot be null");
+            }
+            
+            initialize(createClient(mongoUri), true, dbName, collectionName, screenshotMode);
+        }
+    }
+    
+    /**
+     * Initializes the reporter on the given client: ping, collection lookup and optional index bootstrap
+     */
+    private void initialize(MongoClient client, boolean ownsClient, String dbName, String collectionName, String screenshotMode) {
+        if (initialized) {
+            return;
+        }
+        
         synchronized (lock) {
             if (initialized) {
                 return;
@@ -81,40 +156,79 @@ public class MongoReporter {
             try {
                 this.screenshotMode = (screenshotMode != null) ? screenshotMode : "on_failure";
                 
-                if (mongoUri == null || dbName == null || collectionName == null) {
+                if (client == null || dbName == null || collectionName == null) {
                     throw new IllegalArgumentException("MongoDB URI, database name, and collection name cannot be null");
                 }
                 
                 String finalCollectionName = (collectionName != null && !collectionName.isEmpty()) ? 
                     collectionName : "test_results";
                 
-                ConnectionString connectionString = new ConnectionString(mongoUri);
-                MongoClientSettings settings = MongoClientSettings.builder()
-                        .applyConnectionString(connectionString)
-                        .applyToConnectionPoolSettings(builder -> 
-                            builder.maxConnectionIdleTime(10, TimeUnit.SECONDS))
-                        .build();
-                
-                this.mongoClient = MongoClients.create(settings);
+                this.mongoClient = client;
+                this.ownsClient = ownsClient;
                 
                 try {
                     mongoClient.getDatabase(dbName).runCommand(new Document("ping", 1));
                 } catch (MongoException e) {
                     String errorMsg = "[MongoReporter] Failed to connect to MongoDB: " + e.getMessage();
                     System.err.println(errorMsg);
-                    mongoClient.close();
+                    if (ownsClient) {
+                        mongoClient.close();
+                    }
                     throw new RuntimeException(errorMsg, e);
                 }
                 
                 MongoDatabase database = mongoClient.getDatabase(dbName);
                 this.collection = database.getCollection(finalCollectionName);
+                MongoCollection<Document> summaries = database.getCollection(summaryCollectionName());
+                if (session.isSharded()) {
+                    // Agent'lar kendi shard dokümanına yazar; özet shard bitince birleştirilir
+                    MongoCollection<Document> shards = database.getCollection(shardCollectionName());
+                    this.summaryUpdater = new RunSummaryUpdater(summaries, shards);
+                    this.shardTracker = new RunShardTracker(shards, summaries, session);
+                    this.shardTracker.start();
+                } else {
+                    this.summaryUpdater = new RunSummaryUpdater(summaries);
+                }
+                this.detailsCollection = database.getCollection(
+                    setting("REPORT_DETAILS_COLLECTION", "report.details.collection", "execution_details"));
                 
-                try {
-                    this.collection.createIndex(new Document("testName", 1));
-                    this.collection.createIndex(new Document("status", 1));
-                    this.collection.createIndex(new Document("timestamp", -1));
-                } catch (Exception e) {
-                    System.err.println("[MongoReporter] Warning: Failed to create indexes: " + e.getMessage());
+                if ("gridfs".equalsIgnoreCase(setting("SCREENSHOT_STORE", "screenshot.store", "gridfs"))) {
+                    ScreenshotPipeline.shared().useStore(new GridFsScreenshotStore(database,
+                        setting("SCREENSHOT_STORE_BUCKET", "screenshot.store.bucket", "screenshots")));
+                }
+                
+                // Index'ler dashboard (dashboard.service.IndexManager) tarafından yönetilir;
+                // dashboard'suz kurulumlar için mongo.indexes.bootstrap=true ile aynı compound index'ler oluşturulur
+                if (Boolean.parseBoolean(setting("MONGO_INDEXES_BOOTSTRAP", "mongo.indexes.bootstrap", "false"))) {
+                    try {
+                        this.collection.createIndex(new Document("runId", 1).append("status", 1).append("timestamp", -1));
+                        this.collection.createIndex(new Document("testName", 1).append("timestamp", -1));
+                        this.collection.createIndex(new Document("timestamp", -1).append("_id", -1));
+                    } catch (Exception e) {
+                        System.err.println("[MongoReporter] Warning: Failed to create indexes: " + e.getMessage());
+                    }
+                }
+                
+                if (isSpoolEnabled()) {
+                    try {
+                        this.spool = openSpool();
+                        this.spoolReplayer = new SpoolReplayer(this.spool, this.collection, this.summaryUpdater,
+                            Integer.parseInt(setting("REPORT_SPOOL_BATCH_SIZE", "report.spool.batch.size", "500")),
+                            Long.parseLong(setting("REPORT_SPOOL_REPLAY_INTERVAL_MS", "report.spool.replay.interval.ms", "1000")));
+                        System.out.println("[MongoReporter] Results are spooled to " + spool.getFile() + " and replayed in the background");
+                    } catch (IOException e) {
+                        System.err.println("[MongoReporter] Warning: Spool file could not be opened, writing directly: " + e.getMessage());
+                    }
+                } else if (Boolean.parseBoolean(setting("REPORT_ASYNC", "report.async", "false"))) {
+                    this.asyncWriter = new AsyncResultWriter(
+                        this.collection,
+                        Integer.parseInt(setting("REPORT_ASYNC_BATCH_SIZE", "report.async.batch.size", "500")),
+                        Long.parseLong(setting("REPORT_ASYNC_FLUSH_INTERVAL_MS", "report.async.flush.interval.ms", "1000")),
+                        Integer.parseInt(setting("REPORT_ASYNC_QUEUE_CAPACITY", "report.async.queue.capacity", "10000")),
+                        AsyncResultWriter.BackpressurePolicy.parse(
+                            setting("REPORT_ASYNC_BACKPRESSURE", "report.async.backpressure", "block")),
+                        Paths.get(setting("REPORT_ASYNC_SPILL_FILE", "report.async.spill.file", "target/mongo-report-spill.spool")),
+                        this.summaryUpdater);
                 }
                 
                 initialized = true;
@@ -131,6 +245,20 @@ public class MongoReporter {
         }
     }
     
+    /**
+     * Creates a MongoClient with the reporter's connection pool settings
+     */
+    static MongoClient createClient(String mongoUri) {
+        ConnectionString connectionString = new ConnectionString(mongoUri);
+        MongoClientSettings settings = MongoClientSettings.builder()
+                .applyConnectionString(connectionString)
+                .applyToConnectionPoolSettings(builder -> 
+                    builder.maxConnectionIdleTime(10, TimeUnit.SECONDS))
+                .build();
+        
+        return MongoClients.create(settings);
+    }
+    
     /**
      * Initializes the MongoDB connection using configuration from config.properties or environment variables
      */
@@ -222,11 +350,40 @@ public class MongoReporter {
         return initialized && collection != null;
     }
     
+    /**
+     * Checks if results are written to the local spool file (with or without a MongoDB connection)
+     */
+    public boolean isSpooling() {
+        return spool != null;
+    }
+    
     /**
      * Closes the MongoDB connection
      */
     public void close() {
-        if (mongoClient != null) {
+        if (spoolReplayer != null) {
+            spoolReplayer.close();
+            spoolReplayer = null;
+        }
+        if (spool != null) {
+            spool.close();
+            spool = null;
+        }
+        if (asyncWriter != null) {
+            asyncWriter.close();
+            asyncWriter = null;
+        }
+        synchronized (lock) {
+            if (fallbackSpool != null) {
+                fallbackSpool.close();
+                fallbackSpool = null;
+            }
+        }
+        if (shardTracker != null) {
+            shardTracker.finish();
+            shardTracker = null;
+        }
+        if (mongoClient != null && ownsClient) {
             try {
                 mongoClient.close();
                 System.out.println("[MongoReporter] MongoDB connection closed");
@@ -263,43 +420,47 @@ public class MongoReporter {
      * @param errorMessage Error message (if any)
      */
     public void logScenario(String scenarioName, String status, long duration, String screenshotPath, String errorMessage) {
-        if (!initialized) {
+        logScenario(scenarioName, status, duration, screenshotPath, errorMessage, null);
+    }
+
+    /**
+     * Log a test scenario result with its step timings to MongoDB
+     * @param steps Step timings in execution order (may be null)
+     */
+    public void logScenario(String scenarioName, String status, long duration, String screenshotPath, String errorMessage,
+                            List<StepTiming> steps) {
+        logScenario(scenarioName, status, duration, screenshotPath, errorMessage, steps, null);
+    }
+
+    /**
+     * Log a test scenario result with its step timings and the failure's full stack trace
+     * @param error Failure cause (may be null); its stack trace is stored compressed in execution_details
+     */
+    public void logScenario(String scenarioName, String status, long duration, String screenshotPath, String errorMessage,
+                            List<StepTiming> steps, Throwable error) {
+        if (!initialized && spool == null) {
             System.err.println("[MongoReporter] MongoDB reporter is not initialized. Skipping logging for scenario: " + scenarioName);
             return;
         }
         
-        if (collection == null) {
+        if (collection == null && spool == null) {
             System.err.println("[MongoReporter] MongoDB collection is null. Skipping logging for scenario: " + scenarioName);
             return;
         }
         
         try {
             // Create a document with test results
-            Document doc = new Document()
-                .append("testName", scenarioName)
-                .append("status", status)
-                .append("duration", duration)
-                .append("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
-                .append("runId", this.currentRunId)
-                .append("screenshotPath", screenshotPath != null ? screenshotPath : "");
-            
-            // Add error message if present
-            if (errorMessage != null && !errorMessage.isEmpty()) {
-                doc.append("errorMessage", errorMessage);
+            Document doc = scenarioDocument(scenarioName, status, duration, screenshotPath, errorMessage, new Date());
+            if (steps != null && !steps.isEmpty()) {
+                doc.append("steps", stepDocuments(steps));
             }
-            
-            // Add system information
-            doc.append("systemInfo", new Document()
-                .append("os.name", System.getProperty("os.name"))
-                .append("os.version", System.getProperty("os.version"))
-                .append("java.version", System.getProperty("java.version"))
-                .append("user.name", System.getProperty("user.name"))
-                .append("hostname", getHostname()));
+            attachError(doc, error);
             
             // Insert the document into the collection
-            collection.insertOne(doc);
+            write(doc);
             
-            System.out.println("[MongoReporter] Test result logged to MongoDB: " + doc.toJson());
+            System.out.println("[MongoReporter] Test result " + (spool != null ? "spooled" : asyncWriter != null ? "queued" : "logged") +
+                " to MongoDB: " + doc.toJson());
             
         } catch (MongoWriteException e) {
             // Handle MongoDB write errors specifically
@@ -319,12 +480,122 @@ public class MongoReporter {
         }
     }
 
+    /**
+     * Senaryo sonucu dokümanını bu reporter'ın runId'si ve sistem bilgisiyle oluşturur; yazmaz
+     * @param timestamp senaryonun bitiş zamanı
+     */
+    public Document scenarioDocument(String scenarioName, String status, long duration, String screenshotPath,
+                                     String errorMessage, Date timestamp) {
+        Document doc = new Document()
+            .append("testName", scenarioName)
+            .append("status", status)
+            .append("duration", duration)
+            .append("timestamp", timestamp)
+            .append("runId", this.currentRunId)
+            .append("createdAt", new Date())
+            .append("schemaVersion", SCHEMA_VERSION)
+            .append("screenshotPath", screenshotPath != null ? screenshotPath : "");
+        appendShard(doc);
+        
+        appendError(doc, errorMessage);
+        
+        // Add system information
+        doc.append("systemInfo", new Document()
+            .append("os.name", System.getProperty("os.name"))
+            .append("os.version", System.getProperty("os.version"))
+            .append("java.version", System.getProperty("java.version"))
+            .append("user.name", System.getProperty("user.name"))
+            .append("hostname", getHostname()));
+        return doc;
+    }
+
+    /**
+     * Bölünmüş run'larda sonucun shard'ını ekler; özet sayaçları bu shard'ın dokümanına yazılır
+     */
+    private void appendShard(Document doc) {
+        if (session.isSharded()) {
+            doc.append("shardId", session.getShardId());
+        }
+    }
+
+    /**
+     * Kısaltılmış hata mesajını ve tam mesajdan hesaplanan errorSignature'ı ekler
+     */
+    private static void appendError(Document doc, String errorMessage) {
+        if (errorMessage == null || errorMessage.isEmpty()) {
+            return;
+        }
+        doc.append("errorMessage", errorMessage.length() > ERROR_MESSAGE_MAX_LENGTH
+            ? errorMessage.substring(0, ERROR_MESSAGE_MAX_LENGTH - 3) + "..." : errorMessage);
+        doc.append("errorSignature", ErrorFingerprint.signature(errorMessage));
+    }
+
+    /**
+     * Hatanın tam stack trace'ini sonuç dokümanı yazılırken execution_details'e (aynı _id ile, gzip'li) yazılmak üzere bağlar.
+     * Liste sorguları sıcak dokümanları okurken stack trace taşımaz.
+     */
+    public void attachError(Document doc, Throwable error) {
+        if (error == null) {
+            return;
+        }
+        if (!doc.containsKey("_id")) {
+            doc.put("_id", new ObjectId());
+        }
+        Object id = doc.get("_id");
+        pendingDetails.put(id, new Document("_id", id)
+            .append("runId", doc.get("runId"))
+            .append("testName", doc.get("testName"))
+            .append("errorSignature", doc.get("errorSignature"))
+            .append("errorClass", error.getClass().getName())
+            .append("stackTrace", new Binary(ErrorFingerprint.compressedStackTrace(error)))
+            .append("encoding", "gzip")
+            .append("createdAt", new Date()));
+    }
+
+    /**
+     * Adım sürelerini sonuç dokümanına gömülecek kompakt forma çevirir: [{pattern, duration, status}].
+     * Dashboard yüzdelikleri step definition kalıbına göre gruplar; adım metni saklanmaz.
+     */
+    public static List<Document> stepDocuments(List<StepTiming> steps) {
+        List<Document> documents = new ArrayList<>(steps.size());
+        for (StepTiming step : steps) {
+            documents.add(new Document()
+                .append("pattern", step.getPattern() != null ? step.getPattern() : step.getText())
+                .append("duration", step.getDurationMillis())
+                .append("status", step.getStatus()));
+        }
+        return documents;
+    }
+
+    /**
+     * {@link #scenarioDocument} ile oluşturulmuş sonuçları tek seferde yazar (insertMany, spool veya async kuyruk)
+     */
+    public void logScenarios(List<Document> docs) {
+        if (docs.isEmpty()) {
+            return;
+        }
+        if (!initialized && spool == null) {
+            System.err.println("[MongoReporter] MongoDB reporter is not initialized. Skipping " + docs.size() + " test results");
+            takeDetails(docs);
+            return;
+        }
+
+        try {
+            writeAll(docs);
+            System.out.println("[MongoReporter] " + docs.size() + " test results " +
+                (spool != null ? "spooled" : asyncWriter != null ? "queued" : "logged") + " to MongoDB");
+        } catch (Exception e) {
+            System.err.println("[MongoReporter] Error logging test results to MongoDB: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     /**
      * JUnit5 ve TestNG testleri için test sonucunu MongoDB'ye kaydet
      */
     public void logTest(String testName, String status, long duration, String errorMessage, 
                        String framework, String screenshotPath, String timestamp) {
-        if (!isInitialized()) {
+        if (!isInitialized() && spool == null) {
             System.err.println("[MongoReporter] MongoReporter is not initialized. Cannot log test result.");
             return;
         }
@@ -334,15 +605,15 @@ public class MongoReporter {
                 .append("testName", testName)
                 .append("status", status)
                 .append("duration", duration)
-                .append("timestamp", timestamp != null ? timestamp : LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .append("timestamp", toDate(timestamp))
                 .append("runId", this.currentRunId)
+                .append("createdAt", new Date())
+                .append("schemaVersion", SCHEMA_VERSION)
                 .append("framework", framework)
                 .append("screenshotPath", screenshotPath != null ? screenshotPath : "");
+            appendShard(doc);
             
-            // Add error message if present
-            if (errorMessage != null && !errorMessage.isEmpty()) {
-                doc.append("errorMessage", errorMessage);
-            }
+            appendError(doc, errorMessage);
             
             // Add system information
             doc.append("systemInfo", new Document()
@@ -353,9 +624,10 @@ public class MongoReporter {
                 .append("hostname", getHostname()));
             
             // Insert the document into the collection
-            collection.insertOne(doc);
+            write(doc);
             
-            System.out.println("[MongoReporter] " + framework + " test result logged to MongoDB: " + testName + " - " + status);
+            System.out.println("[MongoReporter] " + framework + " test result " +
+                (spool != null ? "spooled" : asyncWriter != null ? "queued" : "logged") + " to MongoDB: " + testName + " - " + status);
             
         } catch (MongoWriteException e) {
             System.err.println("[MongoReporter] Failed to write to MongoDB: " + e.getMessage());
@@ -372,6 +644,207 @@ public class MongoReporter {
         }
     }
 
+    /**
+     * Async mod açıksa sonucu arka plan yazıcısına verir, değilse doğrudan yazar (bkz. {@link #insertDirect})
+     */
+    private void write(Document doc) {
+        writeAll(List.of(doc));
+    }
+
+    /**
+     * Sonuçları yazar, ardından bağlı stack trace'leri yazar. Sonuç yazılamazsa stack trace'ler atılır;
+     * her iki durumda da pendingDetails'ten silinirler.
+     */
+    private void writeAll(List<Document> docs) {
+        ResultSpool resultSpool = this.spool;
+        AsyncResultWriter writer = this.asyncWriter;
+        boolean written = false;
+        try {
+            if (resultSpool != null) {
+                for (Document doc : docs) {
+                    // _id burada verilir ki tekrar gönderimde aynı sonuç iki kez yazılmasın
+                    if (!doc.containsKey("_id")) {
+                        doc.put("_id", new ObjectId());
+                    }
+                    resultSpool.append(doc);
+                }
+            } else if (writer != null) {
+                for (Document doc : docs) {
+                    writer.submit(doc);
+                }
+            } else {
+                insertDirect(docs);
+            }
+            written = true;
+        } finally {
+            List<Document> details = takeDetails(docs);
+            if (written) {
+                writeDetails(details);
+            }
+        }
+    }
+
+    /**
+     * Sonuçları doğrudan insertMany ile yazar; bağlantı hatalarında MAX_WRITE_ATTEMPTS kez dener, yine yazılamazsa
+     * sonuçları spool dosyasına alır. _id'ler ilk denemeden önce verilir: önceki denemede yazılmış dokümanlar
+     * tekrarda duplicate key ile reddedilir ve yazılmış sayılır.
+     */
+    private void insertDirect(List<Document> docs) {
+        for (Document doc : docs) {
+            if (!doc.containsKey("_id")) {
+                doc.put("_id", new ObjectId());
+            }
+        }
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            try {
+                collection.insertMany(docs, new InsertManyOptions().ordered(false));
+                summaryUpdater.apply(docs);
+                return;
+            } catch (MongoBulkWriteException e) {
+                // ordered=false: geçerli dokümanlar yazıldı, yalnızca hatalı olanlar reddedildi
+                List<BulkWriteError> rejected = new ArrayList<>();
+                for (BulkWriteError error : e.getWriteErrors()) {
+                    if (attempt == 1 || error.getCode() != DUPLICATE_KEY_ERROR) {
+                        rejected.add(error);
+                    }
+                }
+                if (!rejected.isEmpty()) {
+                    System.err.println("[MongoReporter] " + rejected.size() + " of " + docs.size() +
+                        " test results rejected by MongoDB: " + e.getMessage());
+                }
+                summaryUpdater.applyWritten(docs, rejected);
+                return;
+            } catch (MongoException e) {
+                System.err.println("[MongoReporter] Write of " + docs.size() + " test results failed (attempt " +
+                    attempt + "/" + MAX_WRITE_ATTEMPTS + "): " + e.getMessage());
+                if (attempt < MAX_WRITE_ATTEMPTS) {
+                    try {
+                        Thread.sleep(200L * attempt);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+        }
+        spoolFallback(docs);
+    }
+
+    /**
+     * Yazılamayan sonuçları spool dosyasına ekler; dosya bir sonraki spool'lu çalıştırmada veya
+     * {@link SpoolReplayer#main(String[])} ile gönderilir
+     */
+    private void spoolFallback(List<Document> docs) {
+        try {
+            ResultSpool resultSpool;
+            synchronized (lock) {
+                if (fallbackSpool == null) {
+                    fallbackSpool = openSpool();
+                }
+                resultSpool = fallbackSpool;
+            }
+            for (Document doc : docs) {
+                resultSpool.append(doc);
+            }
+            System.err.println("[MongoReporter] " + docs.size() + " test results spooled to " + resultSpool.getFile() +
+                ", replay them with plugin.SpoolReplayer");
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[MongoReporter] " + docs.size() + " test results lost, spool file could not be written: " +
+                e.getMessage());
+        }
+    }
+
+    /**
+     * Sonuçlara bağlanmış stack trace'leri pendingDetails'ten çıkarır
+     */
+    private List<Document> takeDetails(List<Document> docs) {
+        if (pendingDetails.isEmpty()) {
+            return List.of();
+        }
+        List<Document> details = new ArrayList<>();
+        for (Document doc : docs) {
+            Object id = doc.get("_id");
+            Document detail = id != null ? pendingDetails.remove(id) : null;
+            if (detail != null) {
+                details.add(detail);
+            }
+        }
+        return details;
+    }
+
+    /**
+     * Stack trace'leri execution_details'e yazar. Bağlantı yoksa (yalnızca spool) stack trace'ler atılır;
+     * kısaltılmış mesaj ve imza sonuç dokümanında kalır.
+     */
+    private void writeDetails(List<Document> details) {
+        if (details.isEmpty()) {
+            return;
+        }
+        if (detailsCollection == null) {
+            System.err.println("[MongoReporter] MongoDB not connected, " + details.size() + " stack traces not stored");
+            return;
+        }
+        try {
+            detailsCollection.insertMany(details, new InsertManyOptions().ordered(false));
+        } catch (MongoException e) {
+            System.err.println("[MongoReporter] Stack traces could not be stored: " + e.getMessage());
+        }
+    }
+
+    static boolean isSpoolEnabled() {
+        return Boolean.parseBoolean(setting("REPORT_SPOOL", "report.spool", "false"));
+    }
+    
+    static String summaryCollectionName() {
+        return setting("REPORT_SUMMARY_COLLECTION", "report.summary.collection", "run_summaries");
+    }
+    
+    static String shardCollectionName() {
+        return setting("REPORT_SHARD_COLLECTION", "report.shard.collection", "run_shards");
+    }
+    
+    static ResultSpool openSpool() throws IOException {
+        return ResultSpool.openForProcess(Paths.get(setting("REPORT_SPOOL_FILE", "report.spool.file", "target/mongo-report.spool")));
+    }
+
+    /**
+     * Ayarı sırasıyla environment variable, system property ve config.properties'ten okur
+     */
+    public static String setting(String envName, String propertyName, String defaultValue) {
+        String value = System.getenv(envName);
+        if (value == null || value.trim().isEmpty()) {
+            value = System.getProperty(propertyName);
+        }
+        if (value == null || value.trim().isEmpty()) {
+            try {
+                value = ConfigLoader.getProperty(propertyName);
+            } catch (Exception e) {
+                value = null;
+            }
+        }
+        return (value == null || value.trim().isEmpty()) ? defaultValue : value.trim();
+    }
+
+    /**
+     * Çağıranın verdiği ISO-8601 zamanı (offset'li veya yerel) Date'e çevirir; boş veya geçersizse şu an
+     */
+    static Date toDate(String timestamp) {
+        if (timestamp == null || timestamp.trim().isEmpty()) {
+            return new Date();
+        }
+        try {
+            return Date.from(OffsetDateTime.parse(timestamp.trim()).toInstant());
+        } catch (DateTimeParseException e) {
+            // offset'siz yerel zaman
+        }
+        try {
+            return Date.from(LocalDateTime.parse(timestamp.trim()).atZone(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException e) {
+            System.err.println("[MongoReporter] Invalid timestamp '" + timestamp + "', using current time");
+            return new Date();
+        }
+    }
+
     public static String getHostname() {
         try {
             return java.net.InetAddress.getLocalHost().getHostName();
@@ -0,0 +1,141 @@
+package plugin;
+
+import com.mongodb.client.MongoClient;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JVM genelinde (uri, db, collection) başına tek bir başlatılmış MongoReporter ve URI başına tek bir MongoClient tutar.
+ * Bağlantı havuzu, ping ve index oluşturma her senaryo yerine process başına bir kez yapılır;
+ * tüm reporter'lar ve client'lar JVM kapanışında kapatılır. Cucumber plugin'leri ile hook'ların paylaştığı
+ * çalışmakta olan senaryo sonuçları da ({@link ScenarioOutcomes}) JVM genelinde tek örnek olarak burada tutulur.
+ */
+public final class MongoReporterRegistry {
+
+    private static final Map<String, MongoClient> clients = new ConcurrentHashMap<>();
+    private static final Map<String, MongoReporter> reporters = new ConcurrentHashMap<>();
+    private static final Map<String, RuntimeException> failures = new ConcurrentHashMap<>();
+    private static final ScenarioOutcomes scenarioOutcomes = new ScenarioOutcomes();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(MongoReporterRegistry::closeAll, "mongo-report-registry-shutdown"));
+    }
+
+    private MongoReporterRegistry() {
+    }
+
+    /**
+     * Verilen konfigürasyon için paylaşılan reporter'ı döndürür, yoksa oluşturup başlatır.
+     * Başlatma başarısız olursa hata saklanır ve sonraki çağrılar MongoDB'ye tekrar bağlanmayı denemeden aynı hatayı alır.
+     */
+    public static MongoReporter getReporter(String mongoUri, String dbName, String collectionName) {
+        return getReporter(mongoUri, dbName, collectionName, "on_failure");
+    }
+
+    public static MongoReporter getReporter(String mongoUri, String dbName, String collectionName, String screenshotMode) {
+        String key = mongoUri + "|" + dbName + "|" + collectionName;
+
+        MongoReporter reporter = reporters.get(key);
+        if (reporter != null) {
+            return reporter;
+        }
+
+        RuntimeException failure = failures.get(key);
+        if (failure != null) {
+            throw failure;
+        }
+
+        synchronized (MongoReporterRegistry.class) {
+            reporter = reporters.get(key);
+            if (reporter != null) {
+                return reporter;
+            }
+            failure = failures.get(key);
+            if (failure != null) {
+                throw failure;
+            }
+
+            try {
+                MongoClient client = clients.computeIfAbsent(mongoUri, MongoReporter::createClient);
+                reporter = new MongoReporter(client, dbName, collectionName, screenshotMode);
+                reporters.put(key, reporter);
+                System.out.println("[MongoReporterRegistry] Shared MongoReporter created for " + dbName + "." + collectionName);
+                return reporter;
+            } catch (RuntimeException e) {
+                if (MongoReporter.isSpoolEnabled()) {
+                    try {
+                        reporter = new MongoReporter(MongoReporter.openSpool());
+                        reporters.put(key, reporter);
+                        System.err.println("[MongoReporterRegistry] MongoDB unavailable (" + e.getMessage() +
+                            "), results for " + dbName + "." + collectionName + " are spooled locally. " +
+                            "Ship them later with plugin.SpoolReplayer");
+                        return reporter;
+                    } catch (IOException spoolError) {
+                        System.err.println("[MongoReporterRegistry] Spool file could not be opened: " + spoolError.getMessage());
+                    }
+                }
+                failures.put(key, e);
+                System.err.println("[MongoReporterRegistry] MongoReporter could not be initialized, reporting disabled for " +
+                    dbName + "." + collectionName + ": " + e.getMessage());
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * JVM'deki tüm run'ların çalışmakta olan senaryo sonuçları; {@link FunnyListener} yazar, {@link MongoReportHook} okur.
+     * Hook'lar hangi run'da ve hangi reporter'la çalıştıklarını bilmediği için örnek run'a göre ayrılmaz; girdiler
+     * run'lar arasında da tekil olan TestCase id'siyle tutulur.
+     */
+    public static ScenarioOutcomes scenarioOutcomes() {
+        return scenarioOutcomes;
+    }
+
+    /**
+     * mongo.uri / mongo.database (veya mongo.db) / mongo.collection ayarlarından paylaşılan reporter'ı döndürür.
+     * Ayarlar environment variable (MONGO_URI, MONGO_DATABASE, MONGO_COLLECTION), system property veya config.properties'ten okunur.
+     */
+    public static MongoReporter getReporterFromConfig() {
+        String mongoUri = MongoReporter.setting("MONGO_URI", "mongo.uri", null);
+        String dbName = MongoReporter.setting("MONGO_DATABASE", "mongo.database",
+            MongoReporter.setting("MONGO_DB", "mongo.db", null));
+        String collectionName = MongoReporter.setting("MONGO_COLLECTION", "mongo.collection", "test_results");
+        if (mongoUri == null || dbName == null) {
+            throw new IllegalStateException("MongoDB configuration not found, set mongo.uri and mongo.database in config.properties");
+        }
+        return getReporter(mongoUri, dbName, collectionName,
+            MongoReporter.setting("SCREENSHOT_MODE", "screenshot.mode", "on_failure"));
+    }
+
+    /**
+     * Bekleyen ekran görüntülerini, tüm reporter'ları (bekleyen async yazmalar dahil) ve ardından paylaşılan client'ları kapatır
+     */
+    public static synchronized void closeAll() {
+        // Bekleyen ekran görüntüleri bitince sonuçlarını yazar; reporter'lar ondan sonra kapatılmalı
+        ScreenshotPipeline.shutdownShared();
+
+        List<MongoReporter> openReporters = new ArrayList<>(reporters.values());
+        reporters.clear();
+        for (MongoReporter reporter : openReporters) {
+            reporter.close();
+        }
+
+        List<MongoClient> openClients = new ArrayList<>(clients.values());
+        clients.clear();
+        for (MongoClient client : openClients) {
+            try {
+                client.close();
+            } catch (Exception e) {
+                System.err.println("[MongoReporterRegistry] Error closing MongoDB client: " + e.getMessage());
+            }
+        }
+        if (!openClients.isEmpty()) {
+            System.out.println("[MongoReporterRegistry] " + openReporters.size() + " reporters and " +
+                openClients.size() + " MongoDB clients closed");
+        }
+    }
+}
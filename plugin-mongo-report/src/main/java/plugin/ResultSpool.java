@@ -0,0 +1,265 @@
+package plugin;
+
+import com.mongodb.MongoClientSettings;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test sonuçları için append-only, memory-mapped yerel spool dosyası.
+ * <p>
+ * Dosya formatı: 16 byte header (magic, versiyon, okunmuş offset) ve ardından arka arkaya BSON dokümanları.
+ * BSON dokümanı kendi uzunluğunu taşıdığı için ayrıca frame başlığı yoktur; son dokümandan sonra 0 uzunluk yazılır.
+ * Okunan (MongoDB'ye gönderilen) kısım header'daki offset ile işaretlenir, böylece yeniden başlatmada kaldığı yerden devam edilir.
+ */
+public class ResultSpool implements AutoCloseable {
+
+    private static final int MAGIC = 0x5053524D; // "MRSP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int READ_OFFSET_POSITION = 8;
+    private static final int MIN_DOCUMENT_SIZE = 5;
+    private static final long INITIAL_CAPACITY = 4L * 1024 * 1024;
+
+    private static final DocumentCodec CODEC = new DocumentCodec(MongoClientSettings.getDefaultCodecRegistry());
+
+    /**
+     * {@link #peek(int)} ile okunan dokümanlar ve commit edilecek offset
+     */
+    public static final class Batch {
+        private final List<Document> documents;
+        private final long endOffset;
+
+        private Batch(List<Document> documents, long endOffset) {
+            this.documents = documents;
+            this.endOffset = endOffset;
+        }
+
+        public List<Document> getDocuments() {
+            return documents;
+        }
+
+        public long getEndOffset() {
+            return endOffset;
+        }
+
+        public boolean isEmpty() {
+            return documents.isEmpty();
+        }
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final FileLock fileLock;
+    private MappedByteBuffer buffer;
+    private long capacity;
+    private long readOffset;
+    private long writeOffset;
+    private boolean closed = false;
+
+    public ResultSpool(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            channel.close();
+            throw new IOException("Spool file is already open in this JVM: " + file, e);
+        }
+        if (fileLock == null) {
+            channel.close();
+            throw new IOException("Spool file is locked by another process: " + file);
+        }
+
+        map(Math.max(INITIAL_CAPACITY, channel.size()));
+
+        if (buffer.getInt(0) == MAGIC) {
+            if (buffer.getInt(4) != VERSION) {
+                close();
+                throw new IOException("Unsupported spool version " + buffer.getInt(4) + " in " + file);
+            }
+            this.readOffset = buffer.getLong(READ_OFFSET_POSITION);
+        } else {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putLong(READ_OFFSET_POSITION, HEADER_SIZE);
+            buffer.putInt(HEADER_SIZE, 0);
+            this.readOffset = HEADER_SIZE;
+        }
+        this.writeOffset = scanEnd(readOffset);
+
+        if (writeOffset > readOffset) {
+            System.out.println("[ResultSpool] " + file + " contains " + (writeOffset - readOffset) + " bytes of unsent results");
+        }
+    }
+
+    /**
+     * Önce verilen dosyayı, başka bir process tarafından kilitliyse process id'li bir kardeş dosyayı açar.
+     */
+    public static ResultSpool openForProcess(Path file) throws IOException {
+        try {
+            return new ResultSpool(file);
+        } catch (IOException e) {
+            String name = file.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            String pidName = (dot > 0 ? name.substring(0, dot) : name) + "-" + ProcessHandle.current().pid() +
+                (dot > 0 ? name.substring(dot) : "");
+            System.out.println("[ResultSpool] " + e.getMessage() + ", using " + pidName);
+            return new ResultSpool(file.resolveSibling(pidName));
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Dokümanı spool'un sonuna ekler
+     */
+    public synchronized void append(Document doc) {
+        ensureOpen();
+        ByteBuffer bytes = new RawBsonDocument(doc, CODEC).getByteBuffer().asNIO();
+        int length = bytes.remaining();
+
+        ensureCapacity(writeOffset + length + 4);
+        // Uzunluk alanı en son yazılır: yarıda kalan bir yazma sonraki açılışta görünmez
+        int start = (int) writeOffset;
+        buffer.position(start + 4);
+        buffer.put(bytes.position(bytes.position() + 4));
+        buffer.putInt(start + length, 0);
+        buffer.putInt(start, length);
+        writeOffset += length;
+    }
+
+    /**
+     * Henüz commit edilmemiş en fazla maxDocuments dokümanı okur; spool'dan silmez
+     */
+    public synchronized Batch peek(int maxDocuments) {
+        ensureOpen();
+        List<Document> documents = new ArrayList<>();
+        long position = readOffset;
+
+        while (position < writeOffset && documents.size() < maxDocuments) {
+            int length = buffer.getInt((int) position);
+            byte[] bytes = new byte[length];
+            buffer.get((int) position, bytes);
+            try {
+                documents.add(new RawBsonDocument(bytes).decode(CODEC));
+            } catch (RuntimeException e) {
+                System.err.println("[ResultSpool] Corrupt record at offset " + position + " in " + file +
+                    ", discarding the rest of the spool: " + e.getMessage());
+                writeOffset = position;
+                buffer.putInt((int) position, 0);
+                break;
+            }
+            position += length;
+        }
+        return new Batch(documents, position);
+    }
+
+    /**
+     * Verilen offset'e kadar olan dokümanları gönderilmiş olarak işaretler.
+     * Spool tamamen boşaldığında dosya başa sarılır.
+     */
+    public synchronized void commit(long offset) {
+        ensureOpen();
+        if (offset <= readOffset || offset > writeOffset) {
+            return;
+        }
+
+        readOffset = offset;
+        if (readOffset == writeOffset) {
+            readOffset = HEADER_SIZE;
+            writeOffset = HEADER_SIZE;
+            buffer.putInt(HEADER_SIZE, 0);
+        }
+        buffer.putLong(READ_OFFSET_POSITION, readOffset);
+    }
+
+    public synchronized boolean isEmpty() {
+        return readOffset >= writeOffset;
+    }
+
+    public synchronized long pendingBytes() {
+        return writeOffset - readOffset;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            buffer.force();
+            fileLock.release();
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("[ResultSpool] Error closing spool file " + file + ": " + e.getMessage());
+        }
+    }
+
+    private long scanEnd(long from) {
+        long position = from;
+        while (position + 4 <= capacity) {
+            int length = buffer.getInt((int) position);
+            if (length < MIN_DOCUMENT_SIZE || position + length + 4 > capacity) {
+                break;
+            }
+            position += length;
+        }
+        return position;
+    }
+
+    private void ensureCapacity(long required) {
+        if (required <= capacity) {
+            return;
+        }
+        long newCapacity = capacity;
+        while (newCapacity < required) {
+            newCapacity *= 2;
+        }
+        if (newCapacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Spool file " + file + " exceeds 2GB, replay it before writing more results");
+        }
+        try {
+            map(newCapacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to grow spool file " + file, e);
+        }
+    }
+
+    private void map(long newCapacity) throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newCapacity);
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.capacity = newCapacity;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Spool file " + file + " is closed");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package plugin;
+
+import java.security.SecureRandom;
+
+/**
+ * Zaman sıralı, çakışmayan run id üretir: ULID (48 bit milisaniye + 80 bit rastgele, Crockford base32)
+ * ve ardından agent/host adı, örn. 01HQZ3K4V8N2J5X7RBM0C9T6WE-ci-agent-3.
+ * Aynı milisaniyede üretilen id'ler rastgele kısım artırılarak monoton tutulur; id'ler string olarak sıralanabilir.
+ */
+public final class RunIds {
+
+    private static final char[] ENCODING = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final long RANDOM_MASK = (1L << 40) - 1;
+    private static final int MAX_AGENT_LENGTH = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static long lastMillis = -1;
+    private static long randomHigh;
+    private static long randomLow;
+
+    private RunIds() {
+    }
+
+    /**
+     * Yeni run id: ULID + "-" + agent
+     */
+    public static String newRunId() {
+        return newUlid() + "-" + agent();
+    }
+
+    /**
+     * 26 karakterlik, zaman sıralı ULID
+     */
+    public static synchronized String newUlid() {
+        long now = System.currentTimeMillis();
+        if (now > lastMillis) {
+            lastMillis = now;
+            randomHigh = RANDOM.nextLong() & RANDOM_MASK;
+            randomLow = RANDOM.nextLong() & RANDOM_MASK;
+        } else {
+            // Aynı (veya geri giden) milisaniye: önceki id'den büyük kalması için 80 bitlik sayıyı artır
+            randomLow = (randomLow + 1) & RANDOM_MASK;
+            if (randomLow == 0) {
+                randomHigh = (randomHigh + 1) & RANDOM_MASK;
+            }
+        }
+
+        char[] chars = new char[26];
+        encode(lastMillis, chars, 0, 10);
+        encode(randomHigh, chars, 10, 8);
+        encode(randomLow, chars, 18, 8);
+        return new String(chars);
+    }
+
+    /**
+     * REPORT_AGENT / report.agent ayarı, yoksa host adı; id içinde kullanılabilir karakterlere indirgenir
+     */
+    static String agent() {
+        String agent = MongoReporter.setting("REPORT_AGENT", "report.agent", MongoReporter.getHostname());
+        String sanitized = agent.toLowerCase().replaceAll("[^a-z0-9._-]+", "-").replaceAll("^-+|-+$", "");
+        if (sanitized.isEmpty()) {
+            sanitized = "unknown";
+        }
+        return sanitized.length() > MAX_AGENT_LENGTH ? sanitized.substring(0, MAX_AGENT_LENGTH) : sanitized;
+    }
+
+    private static void encode(long value, char[] target, int offset, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            target[i] = ENCODING[(int) (value & 31)];
+            value >>>= 5;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package plugin;
+
+/**
+ * Bir JVM'in ait olduğu mantıksal run. Birden fazla CI agent'ına bölünmüş run'larda her agent aynı runId'yi
+ * (REPORT_RUN_ID / report.runId) ve kendi shard id'sini (REPORT_SHARD_ID / report.shardId) alır; toplam shard sayısı
+ * REPORT_SHARD_COUNT / report.shardCount ile verilir.
+ * <p>
+ * runId verilmezse her JVM {@link RunIds} ile kendi run'ını üretir ve shard kullanılmaz (eski davranış).
+ * runId verilip shard id verilmezse shard id agent adı ve process id'sinden türetilir.
+ */
+public final class RunSession {
+
+    private static volatile RunSession current;
+
+    private final String runId;
+    private final String shardId;
+    private final int shardCount;
+
+    RunSession(String runId, String shardId, int shardCount) {
+        this.runId = runId;
+        this.shardId = shardId;
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * JVM'in run oturumu; ayarlar ilk çağrıda okunur
+     */
+    public static RunSession current() {
+        RunSession session = current;
+        if (session == null) {
+            synchronized (RunSession.class) {
+                session = current;
+                if (session == null) {
+                    session = fromSettings();
+                    current = session;
+                    System.out.println("[RunSession] runId=" + session.runId +
+                        (session.isSharded() ? ", shard=" + session.shardId + " of " +
+                            (session.shardCount > 0 ? session.shardCount : "?") : ""));
+                }
+            }
+        }
+        return session;
+    }
+
+    static RunSession fromSettings() {
+        String runId = MongoReporter.setting("REPORT_RUN_ID", "report.runId", null);
+        String shardId = MongoReporter.setting("REPORT_SHARD_ID", "report.shardId", null);
+        int shardCount;
+        try {
+            shardCount = Integer.parseInt(MongoReporter.setting("REPORT_SHARD_COUNT", "report.shardCount", "0"));
+        } catch (NumberFormatException e) {
+            System.err.println("[RunSession] Invalid report.shardCount, shard count is unknown: " + e.getMessage());
+            shardCount = 0;
+        }
+
+        if (runId == null) {
+            if (shardId != null || shardCount > 1) {
+                System.err.println("[RunSession] report.shardId/report.shardCount ignored, report.runId is not set");
+            }
+            return new RunSession(RunIds.newRunId(), null, 0);
+        }
+        if (shardId == null) {
+            shardId = RunIds.agent() + "-" + ProcessHandle.current().pid();
+        }
+        return new RunSession(runId, shardId, Math.max(0, shardCount));
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    /**
+     * Shard id; run bölünmemişse null
+     */
+    public String getShardId() {
+        return shardId;
+    }
+
+    /**
+     * Beklenen shard sayısı; bilinmiyorsa 0
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardId != null;
+    }
+
+    /**
+     * run_shards koleksiyonundaki doküman id'si: runId#shardId
+     */
+    public String shardKey() {
+        return shardKey(runId, shardId);
+    }
+
+    static String shardKey(String runId, String shardId) {
+        return runId + "#" + shardId;
+    }
+}
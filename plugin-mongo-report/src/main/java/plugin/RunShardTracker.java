@@ -0,0 +1,193 @@
+package plugin;
+
+import com.mongodb.MongoException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bölünmüş bir run'da bu JVM'in shard dokümanını (run_shards, _id = runId#shardId) yönetir.
+ * Sayaçlar {@link RunSummaryUpdater} tarafından shard dokümanına yazılır; shard bitince durumu FINISHED olur ve
+ * run'ın tüm shard'ları run_summaries'teki runId özetine yeniden toplanır.
+ * <p>
+ * Birleştirme her shard bittiğinde tüm shard dokümanlarından baştan hesaplanır. Shard sayaçları ve biten shard sayısı
+ * yalnızca artar; özet yalnızca (shardsFinished, total) ikilisi kayıtlıdan büyükse yazılır. Aynı anda biten iki shard'dan
+ * eski anlık görüntüyü okuyanın yazması sonra gelse bile yeni özeti ezemez; son biten shard özeti tamamlar.
+ */
+public class RunShardTracker {
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final MongoCollection<Document> shards;
+    private final MongoCollection<Document> summaries;
+    private final RunSession session;
+
+    public RunShardTracker(MongoCollection<Document> shards, MongoCollection<Document> summaries, RunSession session) {
+        this.shards = shards;
+        this.summaries = summaries;
+        this.session = session;
+    }
+
+    /**
+     * Shard dokümanını RUNNING olarak kaydeder; hata test akışını etkilemez
+     */
+    public void start() {
+        try {
+            shards.updateOne(Filters.eq("_id", session.shardKey()), Updates.combine(
+                Updates.set("runId", session.getRunId()),
+                Updates.set("shardId", session.getShardId()),
+                Updates.set("shardCount", session.getShardCount()),
+                Updates.set("status", "RUNNING"),
+                Updates.set("host", MongoReporter.getHostname()),
+                Updates.setOnInsert("startedAt", new Date()),
+                Updates.set("updatedAt", new Date())), new UpdateOptions().upsert(true));
+        } catch (MongoException e) {
+            System.err.println("[RunShardTracker] Shard " + session.shardKey() + " could not be registered: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Shard'ı FINISHED olarak işaretler ve run özetini yeniden birleştirir. Bekleyen yazmalar önceden boşaltılmış olmalı.
+     */
+    public void finish() {
+        try {
+            shards.updateOne(Filters.eq("_id", session.shardKey()), Updates.combine(
+                Updates.set("status", "FINISHED"),
+                Updates.set("finishedAt", new Date()),
+                Updates.set("updatedAt", new Date())), new UpdateOptions().upsert(true));
+            Document summary = merge(shards, summaries, session.getRunId());
+            System.out.println("[RunShardTracker] Shard " + session.getShardId() + " finished, run " + session.getRunId() +
+                ": " + summary.get("shardsFinished") + "/" + summary.get("shards") + " shards finished");
+        } catch (MongoException e) {
+            System.err.println("[RunShardTracker] Shard " + session.shardKey() + " could not be finished: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Run'ın tüm shard dokümanlarını toplayıp run_summaries'teki özetin alanlarını yazar. Kayıtlı özet bu anlık
+     * görüntüden daha yeniyse (veya aynıysa) yazılmaz.
+     * @return hesaplanan alanlar
+     */
+    public static Document merge(MongoCollection<Document> shards, MongoCollection<Document> summaries, String runId) {
+        List<Document> shardDocuments = shards.find(shardsOf(runId)).into(new ArrayList<>());
+        Document merged = mergeShards(shardDocuments);
+        List<Bson> updates = new ArrayList<>();
+        merged.forEach((field, value) -> updates.add(Updates.set(field, value)));
+        updates.add(Updates.set("updatedAt", new Date()));
+        try {
+            summaries.updateOne(Filters.and(Filters.eq("_id", runId), olderThan(merged)), Updates.combine(updates),
+                new UpdateOptions().upsert(true));
+        } catch (MongoWriteException e) {
+            // Özet var ama daha yeni: koşul eşleşmediği için upsert aynı _id ile eklemeye çalıştı
+            if (e.getError().getCode() != DUPLICATE_KEY_ERROR) {
+                throw e;
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Kayıtlı özetin (shardsFinished, total) ikilisi birleştirilenden küçükse eşleşir
+     */
+    static Bson olderThan(Document merged) {
+        int finished = merged.getInteger("shardsFinished");
+        long total = merged.getLong("total");
+        return Filters.or(
+            Filters.exists("shardsFinished", false),
+            Filters.lt("shardsFinished", finished),
+            Filters.and(Filters.eq("shardsFinished", finished), Filters.lt("total", total)));
+    }
+
+    /**
+     * _id aralığı ile run'ın shard'ları; ayrı bir index gerekmez ("$" karakteri "#"ten hemen sonra gelir)
+     */
+    static Bson shardsOf(String runId) {
+        return Filters.and(Filters.gte("_id", runId + "#"), Filters.lt("_id", runId + "$"));
+    }
+
+    /**
+     * Shard sayaçlarını run_summaries şemasında toplar (bkz. {@link RunSummaryUpdater})
+     */
+    static Document mergeShards(List<Document> shardDocuments) {
+        long total = 0;
+        long totalDuration = 0;
+        Long maxDuration = null;
+        Long minDuration = null;
+        Date startTime = null;
+        Date endTime = null;
+        String host = null;
+        String framework = null;
+        int finished = 0;
+        int shardCount = 0;
+        Map<String, Long> counts = new TreeMap<>();
+        Map<String, Long> histogram = new TreeMap<>();
+
+        for (Document shard : shardDocuments) {
+            total += number(shard.get("total"));
+            totalDuration += number(shard.get("totalDuration"));
+            if (shard.get("maxDuration") instanceof Number) {
+                long value = number(shard.get("maxDuration"));
+                maxDuration = maxDuration == null ? value : Math.max(maxDuration, value);
+            }
+            if (shard.get("minDuration") instanceof Number) {
+                long value = number(shard.get("minDuration"));
+                minDuration = minDuration == null ? value : Math.min(minDuration, value);
+            }
+            sum(counts, shard.get("counts", Document.class));
+            sum(histogram, shard.get("durationHistogram", Document.class));
+            if (shard.get("startTime") instanceof Date && (startTime == null || shard.getDate("startTime").before(startTime))) {
+                startTime = shard.getDate("startTime");
+            }
+            if (shard.get("endTime") instanceof Date && (endTime == null || shard.getDate("endTime").after(endTime))) {
+                endTime = shard.getDate("endTime");
+            }
+            if (host == null) {
+                host = shard.getString("host");
+            }
+            if (framework == null) {
+                framework = shard.getString("framework");
+            }
+            if ("FINISHED".equals(shard.getString("status"))) {
+                finished++;
+            }
+            shardCount = Math.max(shardCount, (int) number(shard.get("shardCount")));
+        }
+
+        Document merged = new Document("total", total)
+            .append("totalDuration", totalDuration)
+            .append("counts", new Document(new TreeMap<String, Object>(counts)))
+            .append("durationHistogram", new Document(new TreeMap<String, Object>(histogram)))
+            .append("shards", shardDocuments.size())
+            .append("shardsFinished", finished)
+            .append("shardCount", shardCount)
+            // Shard sayısı bilinmiyorsa (0) bilinen tüm shard'lar bitince tamamlanmış sayılır
+            .append("complete", finished >= Math.max(shardCount, shardDocuments.size()));
+        if (maxDuration != null) merged.append("maxDuration", maxDuration);
+        if (minDuration != null) merged.append("minDuration", minDuration);
+        if (startTime != null) merged.append("startTime", startTime);
+        if (endTime != null) merged.append("endTime", endTime);
+        if (host != null) merged.append("host", host);
+        merged.append("framework", framework != null ? framework : "cucumber");
+        return merged;
+    }
+
+    private static void sum(Map<String, Long> target, Document source) {
+        if (source != null) {
+            source.forEach((key, value) -> target.merge(key, number(value), Long::sum));
+        }
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -0,0 +1,195 @@
+package plugin;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Sonuç dokümanlarından run_summaries koleksiyonundaki runId başına özet dokümanını artımlı olarak günceller.
+ * Bir batch'teki sonuçlar runId başına tek bir $inc/$min/$max upsert'üne indirgenir.
+ * <p>
+ * shardId taşıyan sonuçlar (bkz. {@link RunSession}) run_shards'taki runId#shardId dokümanına yazılır; agent'lar aynı
+ * özet dokümanında çakışmaz. Shard'lar {@link RunShardTracker} ile run_summaries'e birleştirilir.
+ */
+public class RunSummaryUpdater {
+
+    private final MongoCollection<Document> summaries;
+    private final MongoCollection<Document> shards;
+
+    public RunSummaryUpdater(MongoCollection<Document> summaries) {
+        this(summaries, null);
+    }
+
+    /**
+     * @param shards shard sayaçlarının koleksiyonu; null ise shardId'li sonuçlar da doğrudan run özetine yazılır
+     */
+    public RunSummaryUpdater(MongoCollection<Document> summaries, MongoCollection<Document> shards) {
+        this.summaries = summaries;
+        this.shards = shards;
+    }
+
+    /**
+     * Yazılmış sonuçlar için özetleri günceller; hata test akışını etkilemez
+     */
+    public void apply(List<Document> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        try {
+            List<WriteModel<Document>> updates = updatesFor(results, false);
+            if (!updates.isEmpty()) {
+                summaries.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+            }
+            List<WriteModel<Document>> shardUpdates = shards != null ? updatesFor(results, true) : List.of();
+            if (!shardUpdates.isEmpty()) {
+                shards.bulkWrite(shardUpdates, new BulkWriteOptions().ordered(false));
+            }
+        } catch (Exception e) {
+            System.err.println("[RunSummaryUpdater] Failed to update run summaries: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Unordered insertMany kısmen başarısız olduğunda yalnızca yazılabilen sonuçlar için özetleri günceller
+     */
+    public void applyWritten(List<Document> batch, List<BulkWriteError> writeErrors) {
+        Set<Integer> failed = new HashSet<>();
+        for (BulkWriteError error : writeErrors) {
+            failed.add(error.getIndex());
+        }
+        List<Document> written = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (!failed.contains(i)) {
+                written.add(batch.get(i));
+            }
+        }
+        apply(written);
+    }
+
+    /**
+     * @param byShard true ise yalnızca shardId'li sonuçlar runId#shardId başına, false ise kalanlar runId başına toplanır
+     */
+    List<WriteModel<Document>> updatesFor(List<Document> results, boolean byShard) {
+        Map<String, Aggregate> byRun = new LinkedHashMap<>();
+        for (Document result : results) {
+            String runId = result.getString("runId");
+            String shardId = shards != null ? result.getString("shardId") : null;
+            if (runId == null || (shardId != null) != byShard) {
+                continue;
+            }
+            if (byShard) {
+                byRun.computeIfAbsent(RunSession.shardKey(runId, shardId), id -> new Aggregate(runId, shardId)).add(result);
+            } else {
+                byRun.computeIfAbsent(runId, id -> new Aggregate(null, null)).add(result);
+            }
+        }
+
+        List<WriteModel<Document>> updates = new ArrayList<>(byRun.size());
+        for (Map.Entry<String, Aggregate> entry : byRun.entrySet()) {
+            updates.add(new UpdateOneModel<>(
+                Filters.eq("_id", entry.getKey()),
+                entry.getValue().toUpdate(),
+                new UpdateOptions().upsert(true)));
+        }
+        return updates;
+    }
+
+    /**
+     * Bir run'a ait sonuçların batch içindeki toplamı
+     */
+    private static final class Aggregate {
+        private long total;
+        private long totalDuration;
+        private long maxDuration = Long.MIN_VALUE;
+        private long minDuration = Long.MAX_VALUE;
+        private Object startTime;
+        private Object endTime;
+        private String host;
+        private String framework;
+        /** Yalnızca shard dokümanlarında dolu */
+        private final String runId;
+        private final String shardId;
+        private final Map<String, Long> statusCounts = new TreeMap<>();
+        private final Map<Integer, Long> histogram = new TreeMap<>();
+
+        Aggregate(String runId, String shardId) {
+            this.runId = runId;
+            this.shardId = shardId;
+        }
+
+        void add(Document result) {
+            total++;
+            Object durationValue = result.get("duration");
+            long duration = durationValue instanceof Number ? ((Number) durationValue).longValue() : 0L;
+            totalDuration += duration;
+            maxDuration = Math.max(maxDuration, duration);
+            minDuration = Math.min(minDuration, duration);
+            histogram.merge(DurationHistogram.bucketOf(duration), 1L, Long::sum);
+
+            String status = result.getString("status");
+            statusCounts.merge(status != null ? sanitizeKey(status) : "UNKNOWN", 1L, Long::sum);
+
+            Object timestamp = result.get("timestamp");
+            if (timestamp != null) {
+                if (startTime == null || compare(timestamp, startTime) < 0) startTime = timestamp;
+                if (endTime == null || compare(timestamp, endTime) > 0) endTime = timestamp;
+            }
+
+            if (host == null) {
+                Document systemInfo = result.get("systemInfo", Document.class);
+                host = systemInfo != null ? systemInfo.getString("hostname") : null;
+            }
+            if (framework == null) {
+                framework = result.getString("framework");
+            }
+        }
+
+        Bson toUpdate() {
+            List<Bson> updates = new ArrayList<>();
+            updates.add(Updates.inc("total", total));
+            updates.add(Updates.inc("totalDuration", totalDuration));
+            updates.add(Updates.max("maxDuration", maxDuration));
+            updates.add(Updates.min("minDuration", minDuration));
+            statusCounts.forEach((status, count) -> updates.add(Updates.inc("counts." + status, count)));
+            histogram.forEach((bucket, count) -> updates.add(Updates.inc("durationHistogram." + bucket, count)));
+            if (startTime != null) updates.add(Updates.min("startTime", startTime));
+            if (endTime != null) updates.add(Updates.max("endTime", endTime));
+            if (host != null) updates.add(Updates.setOnInsert("host", host));
+            updates.add(Updates.setOnInsert("framework", framework != null ? framework : "cucumber"));
+            if (shardId != null) {
+                updates.add(Updates.setOnInsert("runId", runId));
+                updates.add(Updates.setOnInsert("shardId", shardId));
+            }
+            updates.add(Updates.set("updatedAt", new Date()));
+            return Updates.combine(updates);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static int compare(Object a, Object b) {
+            if (a instanceof Comparable && a.getClass() == b.getClass()) {
+                return ((Comparable) a).compareTo(b);
+            }
+            return a.toString().compareTo(b.toString());
+        }
+
+        private static String sanitizeKey(String key) {
+            return key.replace('.', '_').replace('$', '_');
+        }
+    }
+}
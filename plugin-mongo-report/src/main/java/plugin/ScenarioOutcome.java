@@ -0,0 +1,90 @@
+package plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tek bir Cucumber TestCase'in adım sonuçları: ilk hata, adım süreleri ve genel durum.
+ * Olaylar senaryonun kendi thread'inden gelir, okuma ise hook veya plugin thread'inden yapılabilir;
+ * bu yüzden alanlar kilitsiz eşzamanlı yapılardır.
+ */
+public final class ScenarioOutcome {
+
+    private final String testCaseId;
+    private final String name;
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    private final AtomicReference<String> status = new AtomicReference<>("PASSED");
+    private final Queue<StepTiming> steps = new ConcurrentLinkedQueue<>();
+
+    public ScenarioOutcome(String testCaseId, String name) {
+        this.testCaseId = testCaseId;
+        this.name = name;
+    }
+
+    void addStep(StepTiming step, Throwable stepError) {
+        steps.add(step);
+        if (stepError != null) {
+            // Sonraki adımlar atlanır; senaryonun asıl nedeni ilk hatadır
+            error.compareAndSet(null, stepError);
+        }
+        status.accumulateAndGet(step.getStatus(), ScenarioOutcome::worse);
+    }
+
+    public String getTestCaseId() {
+        return testCaseId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Throwable getError() {
+        return error.get();
+    }
+
+    /**
+     * İlk hatanın mesajı; mesajı olmayan hatalar için sınıf adı
+     */
+    public String getErrorMessage() {
+        Throwable throwable = error.get();
+        if (throwable == null) {
+            return null;
+        }
+        return throwable.getMessage() != null ? throwable.getMessage() : throwable.getClass().getName();
+    }
+
+    /**
+     * Adımların en kötü durumu: FAILED &gt; UNDEFINED/AMBIGUOUS/PENDING &gt; SKIPPED &gt; PASSED
+     */
+    public String getStatus() {
+        return status.get();
+    }
+
+    public List<StepTiming> getSteps() {
+        return new ArrayList<>(steps);
+    }
+
+    private static String worse(String current, String candidate) {
+        return rank(candidate) > rank(current) ? candidate : current;
+    }
+
+    private static int rank(String status) {
+        switch (status) {
+            case "FAILED":
+                return 4;
+            case "UNDEFINED":
+            case "AMBIGUOUS":
+            case "PENDING":
+                return 3;
+            case "SKIPPED":
+                return 2;
+            case "PASSED":
+                return 1;
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package plugin;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Çalışmakta olan senaryoların sonuçları, TestCase id'sine göre.
+ * Cucumber plugin'leri ile glue kodu (hook'lar) farklı nesnelerdir; ikisi de JVM genelindeki tek örneği
+ * {@link MongoReporterRegistry#scenarioOutcomes()} ile alır ve hook {@code scenario.getId()} ile kendi senaryosunun
+ * sonucunu okur. TestCase id'leri UUID olduğundan aynı JVM'de art arda veya paralel çalışan run'ların girdileri
+ * karışmaz. Girdiler TestCaseFinished'da silinir, harita yalnızca o anda çalışan senaryo sayısı kadar büyür.
+ */
+public final class ScenarioOutcomes {
+
+    private final Map<String, ScenarioOutcome> running = new ConcurrentHashMap<>();
+
+    ScenarioOutcomes() {
+    }
+
+    ScenarioOutcome start(String testCaseId, String name) {
+        return running.computeIfAbsent(testCaseId, id -> new ScenarioOutcome(id, name));
+    }
+
+    /**
+     * Senaryo henüz bitmediyse sonucunu döndürür, bilinmiyorsa null
+     */
+    public ScenarioOutcome get(String testCaseId) {
+        return testCaseId != null ? running.get(testCaseId) : null;
+    }
+
+    ScenarioOutcome finish(String testCaseId) {
+        return running.remove(testCaseId);
+    }
+}
@@ -0,0 +1,223 @@
+package plugin;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ekran görüntülerini test thread'i dışında küçültüp kodlayan ve diske yazan sınırlı arka plan havuzu.
+ * Test thread'i yalnızca WebDriver'dan byte'ları alır; kuyruk doluysa veya havuz kapandıysa iş çağıran thread'de yapılır.
+ * <p>
+ * Ayarlar: screenshot.dir, screenshot.maxWidth (0 = küçültme yok), screenshot.format (png | jpg),
+ * screenshot.jpegQuality (0..1), screenshot.threads, screenshot.queue,
+ * screenshot.store (gridfs | local | file, varsayılan gridfs), screenshot.store.dir, screenshot.store.bucket
+ * <p>
+ * Bir {@link ScreenshotStore} ayarlandığında görüntü SHA-256 ile içerik adresli saklanır ve dönen yol
+ * dashboard'un /api/screenshots/&lt;hash&gt; adresidir; aynı görüntü tekrar koşularda bir kez saklanır ve dashboard
+ * bu adres için thumbnail sunar. gridfs deposu MongoReporter bağlanana kadar (veya bağlantı yoksa) kullanılamaz;
+ * o sırada ve screenshot.store=file iken görüntü screenshot.dir altına yazılır ve raporda tam boyut yüklenir.
+ */
+public final class ScreenshotPipeline {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 60;
+
+    private static volatile ScreenshotPipeline shared;
+
+    private final ThreadPoolExecutor executor;
+    private final Path directory;
+    private final int maxWidth;
+    private final String format;
+    private final float jpegQuality;
+    private volatile ScreenshotStore store;
+
+    ScreenshotPipeline(Path directory, int maxWidth, String format, float jpegQuality, int threads, int queueCapacity) {
+        this.directory = directory;
+        this.maxWidth = maxWidth;
+        this.format = "jpeg".equals(format) ? "jpg" : format;
+        this.jpegQuality = Math.max(0f, Math.min(1f, jpegQuality));
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            runnable -> {
+                Thread thread = new Thread(runnable, "screenshot-writer-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            // CallerRunsPolicy kapanmış havuzda işi sessizce atar ve future hiç tamamlanmaz; burada her durumda çalıştırılır
+            (task, pool) -> task.run());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * config.properties ayarlarıyla oluşturulan, process genelinde paylaşılan pipeline
+     */
+    public static ScreenshotPipeline shared() {
+        ScreenshotPipeline pipeline = shared;
+        if (pipeline == null) {
+            synchronized (ScreenshotPipeline.class) {
+                pipeline = shared;
+                if (pipeline == null) {
+                    pipeline = new ScreenshotPipeline(
+                        Paths.get(MongoReporter.setting("SCREENSHOT_DIR", "screenshot.dir", "screenshots")),
+                        Integer.parseInt(MongoReporter.setting("SCREENSHOT_MAX_WIDTH", "screenshot.maxWidth", "0")),
+                        MongoReporter.setting("SCREENSHOT_FORMAT", "screenshot.format", "png").toLowerCase(),
+                        Float.parseFloat(MongoReporter.setting("SCREENSHOT_JPEG_QUALITY", "screenshot.jpegQuality", "0.8")),
+                        Math.max(1, Integer.parseInt(MongoReporter.setting("SCREENSHOT_THREADS", "screenshot.threads", "2"))),
+                        Integer.parseInt(MongoReporter.setting("SCREENSHOT_QUEUE", "screenshot.queue", "64")));
+                    // gridfs deposu MongoReporter bağlandığında ayarlanır
+                    if ("local".equalsIgnoreCase(MongoReporter.setting("SCREENSHOT_STORE", "screenshot.store", "gridfs"))) {
+                        pipeline.useStore(new LocalScreenshotStore(
+                            Paths.get(MongoReporter.setting("SCREENSHOT_STORE_DIR", "screenshot.store.dir", "screenshot-store"))));
+                    }
+                    shared = pipeline;
+                }
+            }
+        }
+        return pipeline;
+    }
+
+    /**
+     * Paylaşılan pipeline oluşturulduysa bekleyen tüm görüntülerin (ve onlara bağlı rapor yazmalarının) bitmesini bekler
+     */
+    static void shutdownShared() {
+        ScreenshotPipeline pipeline;
+        synchronized (ScreenshotPipeline.class) {
+            pipeline = shared;
+            shared = null;
+        }
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    /**
+     * Sonraki görüntülerin saklanacağı içerik adresli depo; null ise screenshot.dir altına dosya yazılır
+     */
+    public void useStore(ScreenshotStore store) {
+        this.store = store;
+    }
+
+    /**
+     * PNG byte'larını kuyruğa alır; future yazılan dosyanın yolunu (depo kullanılıyorsa /api/screenshots/&lt;hash&gt;),
+     * hata olursa null döndürür
+     */
+    public CompletableFuture<String> submit(byte[] png, String name) {
+        return CompletableFuture.supplyAsync(() -> write(png, name), executor);
+    }
+
+    private String write(byte[] png, String name) {
+        try {
+            byte[] data;
+            String extension;
+            if (maxWidth <= 0 && "png".equals(format) && isPng(png)) {
+                // Dönüştürme gerekmiyor: WebDriver'ın PNG'si olduğu gibi yazılır
+                data = png;
+                extension = "png";
+            } else {
+                BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+                if (image == null) {
+                    throw new IOException("Unsupported screenshot image data");
+                }
+                data = encode(downscale(image));
+                extension = format;
+            }
+
+            ScreenshotStore target = store;
+            if (target != null) {
+                return "/api/screenshots/" + target.put(data, "jpg".equals(extension) ? "image/jpeg" : "image/" + extension);
+            }
+
+            Files.createDirectories(directory);
+            String baseName = name.replaceAll("[^A-Za-z0-9._-]", "_") + "_" + System.currentTimeMillis();
+            Path file = directory.resolve(baseName + "." + extension);
+            Files.write(file, data);
+            return file.toString().replace('\\', '/');
+        } catch (Exception e) {
+            System.err.println("[ScreenshotPipeline] Screenshot could not be written for " + name + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isPng(byte[] data) {
+        return data.length > 4 && (data[0] & 0xFF) == 0x89 && data[1] == 'P' && data[2] == 'N' && data[3] == 'G';
+    }
+
+    private BufferedImage downscale(BufferedImage image) {
+        boolean opaque = "jpg".equals(format);
+        if ((maxWidth <= 0 || image.getWidth() <= maxWidth) && !opaque) {
+            return image;
+        }
+        int width = (maxWidth > 0 && image.getWidth() > maxWidth) ? maxWidth : image.getWidth();
+        int height = (int) Math.max(1, Math.round(image.getHeight() * (width / (double) image.getWidth())));
+
+        // JPEG alfa kanalı desteklemez
+        BufferedImage scaled = new BufferedImage(width, height, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        if (!"jpg".equals(format)) {
+            if (!ImageIO.write(image, format, buffer)) {
+                throw new IOException("No " + format + " writer available");
+            }
+            return buffer.toByteArray();
+        }
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG writer available");
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(buffer)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Yeni iş kabul etmez ve kuyruktaki görüntülerin yazılmasını bekler
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("[ScreenshotPipeline] " + executor.getQueue().size() +
+                    " screenshots still pending after " + SHUTDOWN_TIMEOUT_SECONDS + "s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package plugin;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Ekran görüntüleri için içerik adresli blob deposu: anahtar içeriğin SHA-256 özetidir,
+ * aynı görüntü (örn. tekrar koşularda aynı hata sayfası) yalnızca bir kez saklanır.
+ */
+public interface ScreenshotStore {
+
+    /**
+     * Görüntüyü saklar; aynı özetle kayıt varsa tekrar yazmaz
+     * @return içeriğin SHA-256 özeti (64 karakter hex)
+     */
+    String put(byte[] data, String contentType) throws IOException;
+
+    static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,23 +1,37 @@
 package plugin;
 
-import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 
-import java.io.File;
+import java.util.concurrent.CompletableFuture;
 
 public class ScreenshotUtil {
 
+    /**
+     * Ekran görüntüsünü alır ve dosya yazılana kadar bekler
+     */
     public static String captureScreenshot(WebDriver driver, String name) {
+        return captureScreenshotAsync(driver, name).join();
+    }
+
+    /**
+     * Test thread'inde yalnızca WebDriver'dan PNG byte'larını alır; küçültme, kodlama ve diske yazma
+     * {@link ScreenshotPipeline} üzerinde yapılır. Future dosya yolunu, hata olursa null döndürür.
+     */
+    public static CompletableFuture<String> captureScreenshotAsync(WebDriver driver, String name) {
         try {
-            File srcFile = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-            String filename = "screenshots/" + name.replaceAll(" ", "_") + "_" + System.currentTimeMillis() + ".png";
-            File destFile = new File(filename);
-            FileUtils.copyFile(srcFile, destFile);
-            return filename;
+            byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            return ScreenshotPipeline.shared().submit(png, name);
         } catch (Exception e) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
     }
+
+    /**
+     * Cucumber'a attach edilmiş PNG byte'larını arka planda yazar
+     */
+    public static CompletableFuture<String> saveScreenshotAsync(byte[] png, String name) {
+        return ScreenshotPipeline.shared().submit(png, name);
+    }
 }
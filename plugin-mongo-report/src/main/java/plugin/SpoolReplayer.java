@@ -0,0 +1,170 @@
+package plugin;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Date;
+
+/**
+ * {@link ResultSpool} içindeki sonuçları toplu insertMany ile MongoDB'ye gönderir.
+ * Reporter içinde arka plan thread'i olarak ya da {@link #main(String[])} ile ayrı bir replay komutu olarak çalışır.
+ */
+public class SpoolReplayer implements AutoCloseable {
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final ResultSpool spool;
+    private final MongoCollection<Document> collection;
+    private final RunSummaryUpdater summaryUpdater;
+    private final int batchSize;
+    private final long intervalMillis;
+    private final Thread worker;
+    private volatile boolean closed = false;
+
+    public SpoolReplayer(ResultSpool spool, MongoCollection<Document> collection, RunSummaryUpdater summaryUpdater,
+                         int batchSize, long intervalMillis) {
+        this.spool = spool;
+        this.collection = collection;
+        this.summaryUpdater = summaryUpdater;
+        this.batchSize = Math.max(1, batchSize);
+        this.intervalMillis = Math.max(1, intervalMillis);
+
+        this.worker = new Thread(this::replayLoop, "mongo-report-spool-replayer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    private void replayLoop() {
+        long backoffMillis = intervalMillis;
+        while (!closed) {
+            try {
+                if (replayBatch(spool, collection, summaryUpdater, batchSize) == 0) {
+                    Thread.sleep(intervalMillis);
+                }
+                backoffMillis = intervalMillis;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("[SpoolReplayer] Replay failed, retrying in " + backoffMillis + "ms: " + e.getMessage());
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, 60_000);
+            }
+        }
+    }
+
+    /**
+     * Spool'daki tek bir batch'i gönderir ve commit eder
+     * @return gönderilen doküman sayısı
+     */
+    public static int replayBatch(ResultSpool spool, MongoCollection<Document> collection,
+                                  RunSummaryUpdater summaryUpdater, int batchSize) {
+        ResultSpool.Batch batch = spool.peek(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            collection.insertMany(batch.getDocuments(), new InsertManyOptions().ordered(false));
+            if (summaryUpdater != null) {
+                summaryUpdater.apply(batch.getDocuments());
+            }
+        } catch (MongoBulkWriteException e) {
+            // Dokümanlar spool'a _id ile yazılır; daha önce gönderilmiş kayıtlar duplicate key hatası verir
+            // ve run özetine ikinci kez eklenmez
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() != DUPLICATE_KEY_ERROR) {
+                    System.err.println("[SpoolReplayer] Result rejected by MongoDB: " + error.getMessage());
+                }
+            }
+            if (summaryUpdater != null) {
+                summaryUpdater.applyWritten(batch.getDocuments(), e.getWriteErrors());
+            }
+        }
+        spool.commit(batch.getEndOffset());
+        return batch.getDocuments().size();
+    }
+
+    /**
+     * Spool boşalana kadar gönderim yapar
+     * @return gönderilen toplam doküman sayısı
+     */
+    public static long replayAll(ResultSpool spool, MongoCollection<Document> collection,
+                                 RunSummaryUpdater summaryUpdater, int batchSize) {
+        long total = 0;
+        int sent;
+        while ((sent = replayBatch(spool, collection, summaryUpdater, batchSize)) > 0) {
+            total += sent;
+        }
+        return total;
+    }
+
+    /**
+     * Arka plan thread'ini durdurur ve spool'da kalanları son bir kez göndermeyi dener
+     */
+    @Override
+    public void close() {
+        closed = true;
+        worker.interrupt();
+        try {
+            worker.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            long sent = replayAll(spool, collection, summaryUpdater, batchSize);
+            if (sent > 0) {
+                System.out.println("[SpoolReplayer] " + sent + " spooled results sent on close");
+            }
+        } catch (Exception e) {
+            System.err.println("[SpoolReplayer] Could not send remaining spooled results, they stay in " +
+                spool.getFile() + " for a later replay: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Spool dosyalarını MongoDB'ye gönderir.
+     * Kullanım: SpoolReplayer &lt;mongoUri&gt; &lt;database&gt; &lt;collection&gt; &lt;spoolFile&gt;...
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: java -cp plugin-mongo-report.jar plugin.SpoolReplayer <mongoUri> <database> <collection> <spoolFile>...");
+            System.exit(1);
+        }
+
+        try (MongoClient client = MongoReporter.createClient(args[0])) {
+            MongoDatabase database = client.getDatabase(args[1]);
+            MongoCollection<Document> collection = database.getCollection(args[2]);
+            MongoCollection<Document> summaries = database.getCollection(MongoReporter.summaryCollectionName());
+            MongoCollection<Document> shards = database.getCollection(MongoReporter.shardCollectionName());
+            RunSummaryUpdater summaryUpdater = new RunSummaryUpdater(summaries, shards);
+            Date started = new Date();
+            for (int i = 3; i < args.length; i++) {
+                Path file = Paths.get(args[i]);
+                try (ResultSpool spool = new ResultSpool(file)) {
+                    long sent = replayAll(spool, collection, summaryUpdater, 1000);
+                    System.out.println("[SpoolReplayer] " + file + ": " + sent + " results sent to " + args[1] + "." + args[2]);
+                }
+            }
+            // Gönderilen shard sonuçları run özetlerine yeniden birleştirilir
+            for (String runId : shards.distinct("runId", Filters.gte("updatedAt", started), String.class)) {
+                RunShardTracker.merge(shards, summaries, runId);
+                System.out.println("[SpoolReplayer] Run summary re-merged from shards: " + runId);
+            }
+        }
+    }
+}
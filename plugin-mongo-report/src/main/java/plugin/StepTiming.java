@@ -0,0 +1,37 @@
+package plugin;
+
+/**
+ * Bir Gherkin adımının süresi ve sonucu
+ */
+public final class StepTiming {
+
+    private final String text;
+    private final String pattern;
+    private final long durationMillis;
+    private final String status;
+
+    public StepTiming(String text, String pattern, long durationMillis, String status) {
+        this.text = text;
+        this.pattern = pattern;
+        this.durationMillis = durationMillis;
+        this.status = status;
+    }
+
+    /** Senaryodaki adım metni, örn. user navigates to "https://example.com" */
+    public String getText() {
+        return text;
+    }
+
+    /** Step definition kalıbı, örn. user navigates to {string}; farklı parametreli adımlar aynı kalıpta toplanır */
+    public String getPattern() {
+        return pattern;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,51 @@
+package plugin;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ErrorFingerprintTest {
+
+    @Test
+    void replacesVariablePartsWithPlaceholders() {
+        assertEquals("Timed out after <n> seconds waiting for <url>",
+            ErrorFingerprint.normalize("Timed out after 30 seconds waiting for https://shop.example.com/cart?id=42"));
+        assertEquals("Order <uuid> not found",
+            ErrorFingerprint.normalize("Order 3f2b8c1e-9a7d-4e6f-b5c4-1d2e3f4a5b6c not found"));
+        assertEquals("Session <hex> expired at <ts>",
+            ErrorFingerprint.normalize("Session 65a1b2c3d4e5f60718293a4b expired at 2024-01-15T10:20:30.123Z"));
+        assertEquals("Element com.app.Button@<hex> is stale",
+            ErrorFingerprint.normalize("Element com.app.Button@1a2b3c is stale"));
+        assertEquals("Started at <ts>", ErrorFingerprint.normalize("Started at 09:15:02"));
+    }
+
+    @Test
+    void keepsOnlyTheFirstLineAndCollapsesWhitespace() {
+        assertEquals("Expected <n> but was <n>",
+            ErrorFingerprint.normalize("  Expected   200\tbut was 500\n\tat com.app.Steps.check(Steps.java:42)\n"));
+    }
+
+    @Test
+    void keepsWordsThatOnlyLookLikeHex() {
+        // Yalnızca harften oluşan kelimeler hex id sayılmaz
+        assertEquals("deadbeef facade", ErrorFingerprint.normalize("deadbeef facade"));
+    }
+
+    @Test
+    void nullMessageNormalizesToEmpty() {
+        assertEquals("", ErrorFingerprint.normalize(null));
+    }
+
+    @Test
+    void signatureGroupsMessagesThatOnlyDifferInVariableParts() {
+        String first = ErrorFingerprint.signature("Timed out after 30 seconds waiting for #pay (session 65a1b2c3d4e5f60718293a4b)");
+        String second = ErrorFingerprint.signature("Timed out after 10 seconds waiting for #pay (session 65a1b2c3d4e5f60718293a4c)");
+
+        assertEquals(first, second);
+        assertEquals(16, first.length());
+        assertNotEquals(first, ErrorFingerprint.signature("Timed out after 30 seconds waiting for #checkout"));
+        assertNull(ErrorFingerprint.signature("  "));
+    }
+}
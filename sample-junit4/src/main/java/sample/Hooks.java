@@ -3,25 +3,33 @@ package sample;
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
-import plugin.MongoReportHook;
-import plugin.FunnyListener;
+import plugin.MongoReporter;
 
 public class Hooks {
 
     private WebDriver driver;
-    private MongoReportHook mongoReportHook;
 
     @Before
     public void setUp() {
         driver = DriverFactory.getDriver();
-        mongoReportHook = new MongoReportHook(driver);
-        mongoReportHook.startTimer();
     }
 
     @After
     public void tearDown(Scenario scenario) {
-        mongoReportHook.afterScenario(scenario);
+        // Sonuç plugin.MongoReportPlugin tarafından yazılır; hook yalnızca ekran görüntüsünü senaryoya ekler
+        String screenshotMode = MongoReporter.setting("SCREENSHOT_MODE", "screenshot.mode", "on_failure");
+        if ("always".equalsIgnoreCase(screenshotMode)
+                || ("on_failure".equalsIgnoreCase(screenshotMode) && scenario.isFailed())) {
+            try {
+                byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+                scenario.attach(screenshot, "image/png", scenario.getName());
+            } catch (Exception e) {
+                System.err.println("[Hooks] Screenshot could not be taken: " + e.getMessage());
+            }
+        }
         DriverFactory.quitDriver();
     }
 }
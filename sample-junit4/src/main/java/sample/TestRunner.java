@@ -11,6 +11,7 @@ import org.junit.runner.RunWith;
         plugin = {
                 "pretty",
                 "plugin.FunnyListener",
+                "plugin.MongoReportPlugin",
                 "html:target/cucumber-html-report.html"
         },
         monochrome = true